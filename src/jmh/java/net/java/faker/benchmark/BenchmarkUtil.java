@@ -0,0 +1,81 @@
+/*
+ * This file is part of faker - https://github.com/o1seth/faker
+ * Copyright (C) 2024 o1seth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.java.faker.benchmark;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.ReferenceCountUtil;
+import net.java.faker.Proxy;
+import net.java.faker.save.Config;
+import net.raphimc.netminecraft.constants.MCPipeline;
+import net.raphimc.netminecraft.packet.Packet;
+import net.raphimc.netminecraft.packet.PacketTypes;
+
+import java.io.File;
+import java.io.IOException;
+
+final class BenchmarkUtil {
+    private static boolean initialized;
+
+    private BenchmarkUtil() {
+
+    }
+
+    static synchronized void init() throws IOException {
+        if (initialized) {
+            return;
+        }
+        File configFile = File.createTempFile("faker_bench_config", ".json");
+        configFile.delete();
+        configFile.deleteOnExit();
+        Proxy.setConfig(new Config(configFile));
+        MCPipeline.useOptimizedPipeline();
+        initialized = true;
+    }
+
+    static ByteBuf encode(Packet packet, int protocolVersion) {
+        ByteBuf buf = Unpooled.buffer();
+        packet.write(buf, protocolVersion);
+        return buf;
+    }
+
+    //length prefixed, uncompressed packet as it is on the wire
+    static ByteBuf frame(int packetId, Packet packet, int protocolVersion) {
+        ByteBuf data = Unpooled.buffer();
+        PacketTypes.writeVarInt(data, packetId);
+        packet.write(data, protocolVersion);
+        ByteBuf frame = Unpooled.directBuffer(data.readableBytes() + 5);
+        PacketTypes.writeVarInt(frame, data.readableBytes());
+        frame.writeBytes(data);
+        data.release();
+        return frame;
+    }
+
+    static int drainOutbound(EmbeddedChannel channel) {
+        int count = 0;
+        Object msg;
+        while ((msg = channel.readOutbound()) != null) {
+            ReferenceCountUtil.release(msg);
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * This file is part of faker - https://github.com/o1seth/faker
+ * Copyright (C) 2024 o1seth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.java.faker.benchmark;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.channel.socket.DatagramPacket;
+import net.java.faker.proxy.dhcp.DhcpHandler;
+import net.java.faker.proxy.dhcp.DhcpServer;
+import net.java.faker.proxy.dhcp.DynamicLeaseManager;
+import org.apache.directory.server.dhcp.io.DhcpMessageDecoder;
+import org.apache.directory.server.dhcp.io.DhcpMessageEncoder;
+import org.apache.directory.server.dhcp.messages.DhcpMessage;
+import org.apache.directory.server.dhcp.messages.HardwareAddress;
+import org.apache.directory.server.dhcp.messages.MessageType;
+import org.apache.directory.server.dhcp.options.dhcp.RequestedIpAddress;
+import org.apache.directory.server.dhcp.options.dhcp.ServerIdentifier;
+import org.apache.directory.server.dhcp.options.vendor.DomainNameServers;
+import org.apache.directory.server.dhcp.options.vendor.Routers;
+import org.apache.directory.server.dhcp.service.manager.LeaseManagerDhcpService;
+import org.openjdk.jmh.annotations.*;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.NetworkInterface;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+//many clients discovering and renewing against one dhcp handler on the loopback interface
+//throughput is offers (or acks) per microsecond, sample time gives the reply latency distribution
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DhcpBenchmark {
+    private static final InetSocketAddress SERVER = new InetSocketAddress(InetAddress.getLoopbackAddress(), 67);
+    private static final InetSocketAddress CLIENT = new InetSocketAddress(InetAddress.getLoopbackAddress(), 68);
+
+    @Param({"256", "1000"})
+    public int clients;
+
+    private EmbeddedChannel channel;
+    private byte[][] discovers;
+    private byte[][] requests;
+    private int next;
+
+    @Setup
+    public void setup() throws Exception {
+        BenchmarkUtil.init();
+        Routers routers = new Routers();
+        routers.setAddresses((Inet4Address) InetAddress.getByName("10.200.0.1"));
+        DomainNameServers dns = new DomainNameServers();
+        dns.setAddresses((Inet4Address) InetAddress.getByName("10.200.0.1"));
+        DynamicLeaseManager manager = new DynamicLeaseManager("10.200.0.2", "10.200.3.254", routers, dns, null);
+        DhcpServer server = new DhcpServer(manager);
+        server.addInterface(NetworkInterface.getByInetAddress(InetAddress.getLoopbackAddress()));
+        this.channel = new DatagramChannel(new DhcpHandler(new LeaseManagerDhcpService(manager), server, manager.getReplyOptions()));
+
+        DhcpMessageDecoder decoder = new DhcpMessageDecoder();
+        this.discovers = new byte[this.clients][];
+        this.requests = new byte[this.clients][];
+        for (int i = 0; i < this.clients; i++) {
+            HardwareAddress mac = new HardwareAddress((short) 1, (short) 6, new byte[]{0x02, 0x00, 0x5e, 0x10, (byte) (i >>> 8), (byte) i});
+            this.discovers[i] = encode(message(MessageType.DHCPDISCOVER, mac, i));
+
+            //the first offer allocates, the benchmark then runs against the steady state
+            ByteBuf offer = this.exchange(this.discovers[i]);
+            DhcpMessage reply = decoder.decode(offer.nioBuffer());
+            offer.release();
+            DhcpMessage request = message(MessageType.DHCPREQUEST, mac, i);
+            RequestedIpAddress requestedIp = new RequestedIpAddress();
+            requestedIp.setAddress(reply.getAssignedClientAddress());
+            request.getOptions().add(requestedIp);
+            ServerIdentifier serverIdentifier = new ServerIdentifier();
+            serverIdentifier.setAddress(SERVER.getAddress());
+            request.getOptions().add(serverIdentifier);
+            this.requests[i] = encode(request);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.channel.finishAndReleaseAll();
+    }
+
+    @Benchmark
+    public int discover() {
+        return this.reply(this.discovers);
+    }
+
+    @Benchmark
+    public int request() {
+        return this.reply(this.requests);
+    }
+
+    private int reply(byte[][] messages) {
+        byte[] message = messages[this.next];
+        this.next = this.next + 1 == messages.length ? 0 : this.next + 1;
+        ByteBuf reply = this.exchange(message);
+        int length = reply.readableBytes();
+        reply.release();
+        return length;
+    }
+
+    private ByteBuf exchange(byte[] message) {
+        this.channel.writeInbound(new DatagramPacket(Unpooled.wrappedBuffer(message), SERVER, CLIENT));
+        DatagramPacket reply = this.channel.readOutbound();
+        if (reply == null) {
+            throw new IllegalStateException("No reply");
+        }
+        return reply.content();
+    }
+
+    private static DhcpMessage message(MessageType type, HardwareAddress mac, int transactionId) {
+        DhcpMessage message = new DhcpMessage();
+        message.setOp(DhcpMessage.OP_BOOTREQUEST);
+        message.setMessageType(type);
+        message.setHardwareAddress(mac);
+        message.setTransactionId(transactionId);
+        return message;
+    }
+
+    private static byte[] encode(DhcpMessage message) throws Exception {
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        new DhcpMessageEncoder().encode(buffer, message);
+        buffer.flip();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    //the handler resolves the receiving interface from the local address
+    private static class DatagramChannel extends EmbeddedChannel {
+        private DatagramChannel(DhcpHandler handler) {
+            super(handler);
+        }
+
+        @Override
+        protected SocketAddress localAddress0() {
+            return SERVER;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * This file is part of faker - https://github.com/o1seth/faker
+ * Copyright (C) 2024 o1seth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.java.faker.benchmark;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.embedded.EmbeddedChannel;
+import net.java.faker.proxy.client2proxy.Client2ProxyHandler;
+import net.java.faker.proxy.client2proxy.HandshakeCodec;
+import net.raphimc.netminecraft.constants.IntendedState;
+import net.raphimc.netminecraft.packet.impl.handshaking.C2SHandshakingClientIntentionPacket;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HandshakeCodecBenchmark {
+    @Param({"47", "768"})
+    public int protocolVersion;
+
+    private EmbeddedChannel channel;
+    private ByteBuf handshake;
+
+    @Setup
+    public void setup() throws Exception {
+        BenchmarkUtil.init();
+        this.channel = new EmbeddedChannel();
+        //only the codec is measured, the handshake is accepted without connecting anywhere
+        this.channel.attr(Client2ProxyHandler.CLIENT_2_PROXY_ATTRIBUTE_KEY).set(new Client2ProxyHandler() {
+            @Override
+            public boolean onHandshake(ChannelHandlerContext ctx, C2SHandshakingClientIntentionPacket handshakingPacket) {
+                return true;
+            }
+        });
+        C2SHandshakingClientIntentionPacket packet = new C2SHandshakingClientIntentionPacket(this.protocolVersion, "mc.example.com", 25565, IntendedState.LOGIN);
+        this.handshake = BenchmarkUtil.frame(0, packet, this.protocolVersion);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.channel.finishAndReleaseAll();
+        this.handshake.release();
+    }
+
+    @Benchmark
+    public Object decode() {
+        //the codec removes itself after the handshake
+        this.channel.pipeline().addFirst(HandshakeCodec.HANDSHAKE_HANDLER_NAME, new HandshakeCodec());
+        this.channel.writeInbound(this.handshake.retainedDuplicate());
+        ByteBuf decoded = this.channel.readInbound();
+        decoded.release();
+        return decoded;
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * This file is part of faker - https://github.com/o1seth/faker
+ * Copyright (C) 2024 o1seth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.java.faker.benchmark;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import net.java.faker.proxy.packet.C2SMovePlayer;
+import net.java.faker.proxy.packet.S2CDestroyEntities;
+import net.java.faker.proxy.packet.S2CEntityPositionSync;
+import net.java.faker.proxy.packet.S2CPlayerPosition;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PacketCodecBenchmark {
+    //1.8, 1.12.2, 1.16.5, 1.20.1, 1.21.2
+    @Param({"47", "340", "754", "763", "768"})
+    public int protocolVersion;
+
+    private ByteBuf out;
+    private ByteBuf status;
+    private ByteBuf rot;
+    private ByteBuf pos;
+    private ByteBuf posRot;
+    private ByteBuf positionSync;
+    private ByteBuf playerPosition;
+    private ByteBuf destroyEntities;
+
+    private C2SMovePlayer posRotPacket;
+    private S2CEntityPositionSync positionSyncPacket;
+    private S2CPlayerPosition playerPositionPacket;
+    private S2CDestroyEntities destroyEntitiesPacket;
+
+    @Setup
+    public void setup() {
+        this.out = Unpooled.directBuffer(256);
+
+        this.status = Unpooled.buffer();
+        this.status.writeByte(1);//onGround (or flags since 1.21.2)
+
+        this.rot = Unpooled.buffer();
+        this.rot.writeFloat(90.5F).writeFloat(-12.25F).writeByte(1);
+
+        this.pos = Unpooled.buffer();
+        this.pos.writeDouble(128.5D).writeDouble(64D).writeDouble(-256.5D).writeByte(1);
+
+        this.posRot = Unpooled.buffer();
+        this.posRot.writeDouble(128.5D).writeDouble(64D).writeDouble(-256.5D).writeFloat(90.5F).writeFloat(-12.25F).writeByte(1);
+
+        this.posRotPacket = new C2SMovePlayer.PosRot();
+        this.posRotPacket.read(this.posRot, this.protocolVersion);
+        this.posRot.readerIndex(0);
+
+        this.positionSyncPacket = new S2CEntityPositionSync();
+        this.positionSyncPacket.entityId = 1234;
+        this.positionSyncPacket.x = 128.5D;
+        this.positionSyncPacket.y = 64D;
+        this.positionSyncPacket.z = -256.5D;
+        this.positionSyncPacket.yaw = 90.5F;
+        this.positionSyncPacket.pitch = -12.25F;
+        this.positionSyncPacket.onGround = true;
+        this.positionSync = BenchmarkUtil.encode(this.positionSyncPacket, this.protocolVersion);
+
+        this.playerPositionPacket = S2CPlayerPosition.create(this.protocolVersion);
+        this.playerPositionPacket.x = 128.5D;
+        this.playerPositionPacket.y = 64D;
+        this.playerPositionPacket.z = -256.5D;
+        this.playerPositionPacket.yaw = 90.5F;
+        this.playerPositionPacket.pitch = -12.25F;
+        this.playerPosition = BenchmarkUtil.encode(this.playerPositionPacket, this.protocolVersion);
+
+        this.destroyEntitiesPacket = new S2CDestroyEntities();
+        this.destroyEntitiesPacket.entities = new int[32];
+        for (int i = 0; i < this.destroyEntitiesPacket.entities.length; i++) {
+            this.destroyEntitiesPacket.entities[i] = 1000 + i * 137;
+        }
+        this.destroyEntities = BenchmarkUtil.encode(this.destroyEntitiesPacket, this.protocolVersion);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.out.release();
+        this.status.release();
+        this.rot.release();
+        this.pos.release();
+        this.posRot.release();
+        this.positionSync.release();
+        this.playerPosition.release();
+        this.destroyEntities.release();
+    }
+
+    @Benchmark
+    public C2SMovePlayer readMovePlayerStatus() {
+        C2SMovePlayer packet = new C2SMovePlayer.Status();
+        packet.read(this.status.readerIndex(0), this.protocolVersion);
+        return packet;
+    }
+
+    @Benchmark
+    public C2SMovePlayer readMovePlayerRot() {
+        C2SMovePlayer packet = new C2SMovePlayer.Rot();
+        packet.read(this.rot.readerIndex(0), this.protocolVersion);
+        return packet;
+    }
+
+    @Benchmark
+    public C2SMovePlayer readMovePlayerPos() {
+        C2SMovePlayer packet = new C2SMovePlayer.Pos();
+        packet.read(this.pos.readerIndex(0), this.protocolVersion);
+        return packet;
+    }
+
+    @Benchmark
+    public C2SMovePlayer readMovePlayerPosRot() {
+        C2SMovePlayer packet = new C2SMovePlayer.PosRot();
+        packet.read(this.posRot.readerIndex(0), this.protocolVersion);
+        return packet;
+    }
+
+    @Benchmark
+    public ByteBuf writeMovePlayerPosRot() {
+        this.posRotPacket.write(this.out.clear(), this.protocolVersion);
+        return this.out;
+    }
+
+    @Benchmark
+    public S2CEntityPositionSync readEntityPositionSync() {
+        S2CEntityPositionSync packet = new S2CEntityPositionSync();
+        packet.read(this.positionSync.readerIndex(0), this.protocolVersion);
+        return packet;
+    }
+
+    @Benchmark
+    public ByteBuf writeEntityPositionSync() {
+        this.positionSyncPacket.write(this.out.clear(), this.protocolVersion);
+        return this.out;
+    }
+
+    @Benchmark
+    public S2CPlayerPosition readPlayerPosition() {
+        S2CPlayerPosition packet = S2CPlayerPosition.create(this.protocolVersion);
+        packet.read(this.playerPosition.readerIndex(0), this.protocolVersion);
+        return packet;
+    }
+
+    @Benchmark
+    public ByteBuf writePlayerPosition() {
+        this.playerPositionPacket.write(this.out.clear(), this.protocolVersion);
+        return this.out;
+    }
+
+    @Benchmark
+    public S2CDestroyEntities readDestroyEntities() {
+        S2CDestroyEntities packet = new S2CDestroyEntities();
+        packet.read(this.destroyEntities.readerIndex(0), this.protocolVersion);
+        return packet;
+    }
+
+    @Benchmark
+    public ByteBuf writeDestroyEntities() {
+        this.destroyEntitiesPacket.write(this.out.clear(), this.protocolVersion);
+        return this.out;
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * This file is part of faker - https://github.com/o1seth/faker
+ * Copyright (C) 2024 o1seth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.java.faker.benchmark;
+
+import net.java.faker.proxy.PacketRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PacketRegistryBenchmark {
+    @Param({"47", "340", "754", "763", "768"})
+    public int protocolVersion;
+
+    //every connection builds its own registry for c2p (on handshake) and p2s
+    @Benchmark
+    public PacketRegistry clientbound() {
+        return new PacketRegistry(true, this.protocolVersion);
+    }
+
+    @Benchmark
+    public PacketRegistry serverbound() {
+        return new PacketRegistry(false, this.protocolVersion);
+    }
+}
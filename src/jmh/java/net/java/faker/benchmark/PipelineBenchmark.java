@@ -0,0 +1,129 @@
+/*
+ * This file is part of faker - https://github.com/o1seth/faker
+ * Copyright (C) 2024 o1seth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.java.faker.benchmark;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import net.java.faker.proxy.client2proxy.Client2ProxyChannelInitializer;
+import net.java.faker.proxy.client2proxy.Client2ProxyHandler;
+import net.java.faker.proxy.client2proxy.HandshakeCodec;
+import net.java.faker.proxy.packet.C2SMovePlayer;
+import net.java.faker.proxy.packet.S2CEntityPositionSync;
+import net.java.faker.proxy.packethandler.MovePlayerPacketHandler;
+import net.java.faker.proxy.proxy2server.Proxy2ServerChannelInitializer;
+import net.java.faker.proxy.proxy2server.Proxy2ServerHandler;
+import net.java.faker.proxy.session.DualConnection;
+import net.java.faker.proxy.session.ProxyConnection;
+import net.raphimc.netminecraft.constants.ConnectionState;
+import net.raphimc.netminecraft.constants.MCPackets;
+import net.raphimc.netminecraft.constants.MCVersion;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+//dual session in play state: main client is the controller, side client follows
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PipelineBenchmark {
+    @Param({"47", "763", "768"})
+    public int protocolVersion;
+
+    private EmbeddedChannel mainClient;
+    private EmbeddedChannel sideClient;
+    private EmbeddedChannel server;
+    private ByteBuf movePlayer;
+    private ByteBuf positionSync;
+
+    @Setup
+    public void setup() throws Exception {
+        BenchmarkUtil.init();
+        this.mainClient = new EmbeddedChannel(new Client2ProxyChannelInitializer(Client2ProxyHandler::new));
+        this.sideClient = new EmbeddedChannel(new Client2ProxyChannelInitializer(Client2ProxyHandler::new));
+        ProxyConnection main = this.createConnection(this.mainClient);
+        ProxyConnection side = this.createConnection(this.sideClient);
+
+        this.server = new EmbeddedChannel(false, false, new Proxy2ServerChannelInitializer(Proxy2ServerHandler::new));
+        this.server.attr(ProxyConnection.PROXY_CONNECTION_ATTRIBUTE_KEY).set(main);
+        this.server.register();
+        main.setChannel(this.server.newSucceededFuture());
+        main.setP2sConnectionState(ConnectionState.PLAY);
+
+        DualConnection dualConnection = new DualConnection(main);
+        main.setController(true);
+        main.dualConnection = dualConnection;
+        side.setController(false);
+        side.setChannel(main);
+        dualConnection.setSideConnection(side);
+        side.dualConnection = dualConnection;
+
+        C2SMovePlayer move = new C2SMovePlayer.PosRot();
+        ByteBuf moveData = Unpooled.buffer();
+        moveData.writeDouble(128.5D).writeDouble(64D).writeDouble(-256.5D).writeFloat(90.5F).writeFloat(-12.25F).writeByte(1);
+        move.read(moveData, this.protocolVersion);
+        moveData.release();
+        this.movePlayer = BenchmarkUtil.frame(MCPackets.C2S_MOVE_PLAYER_POS_ROT.getId(this.protocolVersion), move, this.protocolVersion);
+
+        S2CEntityPositionSync sync = new S2CEntityPositionSync();
+        sync.entityId = 1234;
+        sync.x = 128.5D;
+        sync.y = 64D;
+        sync.z = -256.5D;
+        sync.yaw = 90.5F;
+        sync.pitch = -12.25F;
+        sync.onGround = true;
+        MCPackets syncType = this.protocolVersion >= MCVersion.v1_21_2 ? MCPackets.S2C_ENTITY_POSITION_SYNC : MCPackets.S2C_TELEPORT_ENTITY;
+        this.positionSync = BenchmarkUtil.frame(syncType.getId(this.protocolVersion), sync, this.protocolVersion);
+    }
+
+    private ProxyConnection createConnection(EmbeddedChannel c2p) {
+        c2p.pipeline().remove(HandshakeCodec.HANDSHAKE_HANDLER_NAME);
+        ProxyConnection proxyConnection = c2p.attr(Client2ProxyHandler.CLIENT_2_PROXY_ATTRIBUTE_KEY).get().getProxyConnection();
+        c2p.attr(ProxyConnection.PROXY_CONNECTION_ATTRIBUTE_KEY).set(proxyConnection);
+        proxyConnection.setVersion(this.protocolVersion);
+        proxyConnection.setC2pConnectionState(ConnectionState.PLAY);
+        proxyConnection.getPacketHandlers().add(new MovePlayerPacketHandler(proxyConnection));
+        return proxyConnection;
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.mainClient.finishAndReleaseAll();
+        this.sideClient.finishAndReleaseAll();
+        this.server.finishAndReleaseAll();
+        this.movePlayer.release();
+        this.positionSync.release();
+    }
+
+    //client -> proxy -> server, follower receives a teleport
+    @Benchmark
+    public int clientMovePlayer() {
+        this.mainClient.writeInbound(this.movePlayer.retainedDuplicate());
+        return BenchmarkUtil.drainOutbound(this.server) + BenchmarkUtil.drainOutbound(this.sideClient);
+    }
+
+    //server -> proxy -> both clients
+    @Benchmark
+    public int serverEntityPositionSync() {
+        this.server.writeInbound(this.positionSync.retainedDuplicate());
+        return BenchmarkUtil.drainOutbound(this.mainClient) + BenchmarkUtil.drainOutbound(this.sideClient);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * This file is part of faker - https://github.com/o1seth/faker
+ * Copyright (C) 2024 o1seth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.java.faker.benchmark.auth;
+
+import net.java.faker.Proxy;
+import net.java.faker.benchmark.load.BotClient;
+import net.java.faker.benchmark.load.LoadHarness;
+import net.java.faker.benchmark.load.StandInServer;
+import net.java.faker.proxy.session.SessionRegistry;
+import net.raphimc.netminecraft.constants.MCPipeline;
+import org.openjdk.jmh.annotations.*;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+//time from the first client connecting until both clients of a dual session are in play state
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class LoginBenchmark {
+    @Param({"340", "763"})
+    public int protocolVersion;
+    @Param({"true", "false"})
+    public boolean onlineMode;
+    @Param({"0", "50"})
+    public long sessionLatencyMillis;
+
+    private SessionServerStandIn sessionServer;
+    private StandInServer server;
+    private InetSocketAddress proxyAddress;
+    private InetSocketAddress serverAddress;
+    private BotClient main;
+    private BotClient side;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        MCPipeline.useOptimizedPipeline();
+        this.sessionServer = new SessionServerStandIn(this.sessionLatencyMillis, 0);
+        String host = this.sessionServer.start();
+        //read once when AuthLibServices is loaded, which happens on the first online mode login
+        System.setProperty("faker.sessionHost", host);
+        System.setProperty("faker.servicesHost", host);
+        this.server = new StandInServer(1, 0);
+        this.serverAddress = this.server.start();
+        this.proxyAddress = LoadHarness.startProxy(this.serverAddress, this.onlineMode);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Proxy.stopProxy();
+        this.server.stop();
+        this.sessionServer.stop();
+    }
+
+    @Benchmark
+    public void dualLogin() throws Exception {
+        this.main = new BotClient("bot_main", this.protocolVersion, 1, this.serverAddress);
+        this.side = new BotClient("bot_side", this.protocolVersion, 1, this.serverAddress);
+        this.main.setSessionHost(this.sessionServer.getHost());
+        this.side.setSessionHost(this.sessionServer.getHost());
+        this.main.connect(this.proxyAddress);
+        //the second client must reach the proxy after the first one became the main connection
+        while (SessionRegistry.getPendingCount() == 0) {
+            if (this.main.getPlayFuture().isCompletedExceptionally()) {
+                this.main.getPlayFuture().join();
+            }
+            Thread.onSpinWait();
+        }
+        this.side.connect(this.proxyAddress);
+        this.main.getPlayFuture().get(30, TimeUnit.SECONDS);
+        this.side.getPlayFuture().get(30, TimeUnit.SECONDS);
+    }
+
+    @TearDown(Level.Invocation)
+    public void disconnect() throws InterruptedException {
+        if (this.main != null) {
+            this.main.close();
+        }
+        if (this.side != null) {
+            this.side.close();
+        }
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!SessionRegistry.getSessions().isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        SessionRegistry.clear();
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * This file is part of faker - https://github.com/o1seth/faker
+ * Copyright (C) 2024 o1seth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.java.faker.benchmark.auth;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.netty.util.concurrent.DefaultThreadFactory;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+//In-process replacement for the session server (join, hasJoined, publickeys).
+//Start it before AuthLibServices is loaded and point -Dfaker.sessionHost / -Dfaker.servicesHost to getHost()
+public class SessionServerStandIn {
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final LongAdder joinRequests = new LongAdder();
+    private final LongAdder hasJoinedRequests = new LongAdder();
+    private final LongAdder failedRequests = new LongAdder();
+    private volatile long latencyMillis;
+    private volatile double failureRate;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public SessionServerStandIn(long latencyMillis, double failureRate) {
+        this.latencyMillis = latencyMillis;
+        this.failureRate = failureRate;
+    }
+
+    public String start() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.executor = Executors.newCachedThreadPool(new DefaultThreadFactory("session-stand-in", true));
+        this.server.setExecutor(this.executor);
+        this.server.createContext("/session/minecraft/join", this::handleJoin);
+        this.server.createContext("/session/minecraft/hasJoined", this::handleHasJoined);
+        this.server.createContext("/publickeys", exchange -> {
+            JsonObject keys = new JsonObject();
+            keys.add("profilePropertyKeys", new JsonArray());
+            keys.add("playerCertificateKeys", new JsonArray());
+            respond(exchange, 200, keys);
+        });
+        this.server.start();
+        return this.getHost();
+    }
+
+    public void stop() {
+        if (this.server != null) {
+            this.server.stop(0);
+            this.executor.shutdownNow();
+            this.server = null;
+        }
+    }
+
+    public String getHost() {
+        return "http://127.0.0.1:" + this.server.getAddress().getPort();
+    }
+
+    public void setLatencyMillis(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    public void setFailureRate(double failureRate) {
+        this.failureRate = failureRate;
+    }
+
+    public long getJoinRequests() {
+        return this.joinRequests.sum();
+    }
+
+    public long getHasJoinedRequests() {
+        return this.hasJoinedRequests.sum();
+    }
+
+    public long getFailedRequests() {
+        return this.failedRequests.sum();
+    }
+
+    //the access token is the player name, there are no real accounts
+    private void handleJoin(HttpExchange exchange) throws IOException {
+        this.joinRequests.increment();
+        if (this.delayOrFail(exchange)) {
+            return;
+        }
+        JsonObject request;
+        try (InputStreamReader reader = new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)) {
+            request = JsonParser.parseReader(reader).getAsJsonObject();
+        }
+        String name = request.get("accessToken").getAsString();
+        this.sessions.put(name, new Session(request.get("selectedProfile").getAsString(), request.get("serverId").getAsString()));
+        respond(exchange, 204, null);
+    }
+
+    private void handleHasJoined(HttpExchange exchange) throws IOException {
+        this.hasJoinedRequests.increment();
+        if (this.delayOrFail(exchange)) {
+            return;
+        }
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        String name = query.get("username");
+        Session session = name == null ? null : this.sessions.remove(name);
+        if (session == null || !session.serverId.equals(query.get("serverId"))) {
+            respond(exchange, 204, null);
+            return;
+        }
+        JsonObject profile = new JsonObject();
+        profile.addProperty("id", session.profileId);
+        profile.addProperty("name", name);
+        profile.add("properties", new JsonArray());
+        respond(exchange, 200, profile);
+    }
+
+    private boolean delayOrFail(HttpExchange exchange) throws IOException {
+        long latency = this.latencyMillis;
+        if (latency > 0) {
+            try {
+                Thread.sleep(latency);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (this.failureRate > 0 && ThreadLocalRandom.current().nextDouble() < this.failureRate) {
+            this.failedRequests.increment();
+            JsonObject error = new JsonObject();
+            error.addProperty("error", "ServiceUnavailable");
+            error.addProperty("errorMessage", "Stand-in failure");
+            respond(exchange, 503, error);
+            return true;
+        }
+        return false;
+    }
+
+    private static void respond(HttpExchange exchange, int code, JsonObject body) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(code, -1);
+            exchange.close();
+            return;
+        }
+        byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(code, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> result = new HashMap<>();
+        if (query == null) {
+            return result;
+        }
+        for (String pair : query.split("&")) {
+            int index = pair.indexOf('=');
+            if (index > 0) {
+                result.put(URLDecoder.decode(pair.substring(0, index), StandardCharsets.UTF_8), URLDecoder.decode(pair.substring(index + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return result;
+    }
+
+    private static class Session {
+        private final String profileId;
+        private final String serverId;
+
+        private Session(String profileId, String serverId) {
+            this.profileId = profileId;
+            this.serverId = serverId;
+        }
+    }
+}
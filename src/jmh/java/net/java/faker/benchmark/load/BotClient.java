@@ -0,0 +1,256 @@
+/*
+ * This file is part of faker - https://github.com/o1seth/faker
+ * Copyright (C) 2024 o1seth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.java.faker.benchmark.load;
+
+import com.google.gson.JsonObject;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.util.concurrent.ScheduledFuture;
+import net.java.faker.proxy.PacketRegistry;
+import net.raphimc.netminecraft.constants.ConnectionState;
+import net.raphimc.netminecraft.constants.IntendedState;
+import net.raphimc.netminecraft.constants.MCPackets;
+import net.raphimc.netminecraft.constants.MCPipeline;
+import net.raphimc.netminecraft.netty.connection.MinecraftChannelInitializer;
+import net.raphimc.netminecraft.netty.connection.NetClient;
+import net.raphimc.netminecraft.netty.crypto.AESEncryption;
+import net.raphimc.netminecraft.netty.crypto.CryptUtil;
+import net.raphimc.netminecraft.packet.Packet;
+import net.raphimc.netminecraft.packet.PacketTypes;
+import net.raphimc.netminecraft.packet.UnknownPacket;
+import net.raphimc.netminecraft.packet.impl.handshaking.C2SHandshakingClientIntentionPacket;
+import net.raphimc.netminecraft.packet.impl.login.C2SLoginHelloPacket;
+import net.raphimc.netminecraft.packet.impl.login.C2SLoginKeyPacket;
+import net.raphimc.netminecraft.packet.impl.login.S2CLoginCompressionPacket;
+import net.raphimc.netminecraft.packet.impl.login.S2CLoginDisconnectPacket;
+import net.raphimc.netminecraft.packet.impl.login.S2CLoginGameProfilePacket;
+import net.raphimc.netminecraft.packet.impl.login.S2CLoginHelloPacket;
+
+import javax.crypto.SecretKey;
+import java.math.BigInteger;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+//scripted client: logs in (online mode against a session host if set), then walks and answers nothing
+public class BotClient {
+    private static final HttpClient HTTP_CLIENT = HttpClient.newHttpClient();
+    private final String name;
+    private final int version;
+    private final int movesPerSecond;
+    private final InetSocketAddress handshakeAddress;
+    private final TrafficCounter trafficCounter = new TrafficCounter();
+    private final LatencyRecorder s2cLatency = new LatencyRecorder();
+    private final CompletableFuture<Void> play = new CompletableFuture<>();
+    private NetClient client;
+    private String sessionHost;
+
+    public BotClient(String name, int version, int movesPerSecond, InetSocketAddress handshakeAddress) {
+        this.name = name;
+        this.version = version;
+        this.movesPerSecond = movesPerSecond;
+        this.handshakeAddress = handshakeAddress;
+    }
+
+    public CompletableFuture<Void> connect(InetSocketAddress address) {
+        this.client = new NetClient(BotHandler::new, BotChannelInitializer::new);
+        this.client.connect(address).addListener((ChannelFutureListener) f -> {
+            if (!f.isSuccess()) {
+                this.play.completeExceptionally(f.cause());
+                return;
+            }
+            Channel channel = f.channel();
+            channel.writeAndFlush(new C2SHandshakingClientIntentionPacket(this.version, this.handshakeAddress.getHostString(), this.handshakeAddress.getPort(), IntendedState.LOGIN)).addListener((ChannelFutureListener) f2 -> {
+                if (!f2.isSuccess()) {
+                    this.play.completeExceptionally(f2.cause());
+                    return;
+                }
+                channel.attr(MCPipeline.PACKET_REGISTRY_ATTRIBUTE_KEY).get().setConnectionState(ConnectionState.LOGIN);
+                channel.writeAndFlush(new C2SLoginHelloPacket(this.name, null, null, null, null)).addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
+            });
+        });
+        return this.play;
+    }
+
+    public void setSessionHost(String sessionHost) {
+        this.sessionHost = sessionHost;
+    }
+
+    public CompletableFuture<Void> getPlayFuture() {
+        return this.play;
+    }
+
+    public void close() {
+        if (this.client != null && this.client.getChannel() != null) {
+            this.client.getChannel().close().syncUninterruptibly();
+        }
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public TrafficCounter getTrafficCounter() {
+        return this.trafficCounter;
+    }
+
+    public LatencyRecorder getS2cLatency() {
+        return this.s2cLatency;
+    }
+
+    public void reset() {
+        this.trafficCounter.reset();
+        this.s2cLatency.reset();
+    }
+
+    private class BotChannelInitializer extends MinecraftChannelInitializer {
+
+        BotChannelInitializer(final Supplier<ChannelHandler> handlerSupplier) {
+            super(handlerSupplier);
+        }
+
+        @Override
+        protected void initChannel(Channel channel) {
+            super.initChannel(channel);
+            channel.pipeline().addFirst(TrafficCounter.TRAFFIC_COUNTER_NAME, BotClient.this.trafficCounter);
+            channel.attr(MCPipeline.PACKET_REGISTRY_ATTRIBUTE_KEY).set(new PacketRegistry(true, BotClient.this.version));
+        }
+    }
+
+    private class BotHandler extends SimpleChannelInboundHandler<Packet> {
+        private final int keepAliveClientboundId = MCPackets.S2C_KEEP_ALIVE.getId(BotClient.this.version);
+        private final int keepAliveServerboundId = MCPackets.C2S_KEEP_ALIVE.getId(BotClient.this.version);
+        private final int movePlayerId = MCPackets.C2S_MOVE_PLAYER_POS_ROT.getId(BotClient.this.version);
+        private Channel channel;
+        private ScheduledFuture<?> movement;
+        private long tick;
+
+        @Override
+        public void channelActive(ChannelHandlerContext ctx) throws Exception {
+            super.channelActive(ctx);
+            this.channel = ctx.channel();
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+            super.channelInactive(ctx);
+            if (this.movement != null) {
+                this.movement.cancel(false);
+            }
+            BotClient.this.play.completeExceptionally(new IllegalStateException(BotClient.this.name + " disconnected"));
+        }
+
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, Packet packet) throws Exception {
+            if (packet instanceof UnknownPacket unknown) {
+                if (unknown.packetId == this.keepAliveClientboundId) {
+                    long sent = Unpooled.wrappedBuffer(unknown.data).readLong();
+                    BotClient.this.s2cLatency.record(System.nanoTime() - sent);
+                }
+            } else if (packet instanceof S2CLoginCompressionPacket compression) {
+                this.channel.attr(MCPipeline.COMPRESSION_THRESHOLD_ATTRIBUTE_KEY).set(compression.compressionThreshold);
+            } else if (packet instanceof S2CLoginGameProfilePacket) {
+                this.channel.attr(MCPipeline.PACKET_REGISTRY_ATTRIBUTE_KEY).get().setConnectionState(ConnectionState.PLAY);
+                long period = TimeUnit.SECONDS.toNanos(1) / BotClient.this.movesPerSecond;
+                this.movement = this.channel.eventLoop().scheduleAtFixedRate(this::move, period, period, TimeUnit.NANOSECONDS);
+                BotClient.this.play.complete(null);
+            } else if (packet instanceof S2CLoginHelloPacket loginHello) {
+                this.handleLoginHello(loginHello);
+            } else if (packet instanceof S2CLoginDisconnectPacket disconnect) {
+                BotClient.this.play.completeExceptionally(new IllegalStateException(BotClient.this.name + " kicked: " + disconnect.reason.asLegacyFormatString()));
+            }
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            BotClient.this.play.completeExceptionally(cause);
+            ctx.close();
+        }
+
+        private void handleLoginHello(S2CLoginHelloPacket loginHello) throws GeneralSecurityException {
+            if (BotClient.this.sessionHost == null) {
+                throw new IllegalStateException(BotClient.this.name + " has no session host for an online mode login");
+            }
+            final PublicKey publicKey = CryptUtil.decodeRsaPublicKey(loginHello.publicKey);
+            final SecretKey secretKey = CryptUtil.generateSecretKey();
+            final String serverHash = new BigInteger(CryptUtil.computeServerIdHash(loginHello.serverId, publicKey, secretKey)).toString(16);
+            final C2SLoginKeyPacket loginKey = new C2SLoginKeyPacket(CryptUtil.encryptData(publicKey, secretKey.getEncoded()), CryptUtil.encryptData(publicKey, loginHello.nonce));
+
+            //the stand-in session server takes the player name as access token
+            UUID uuid = UUID.nameUUIDFromBytes(("OfflinePlayer:" + BotClient.this.name).getBytes(StandardCharsets.UTF_8));
+            JsonObject join = new JsonObject();
+            join.addProperty("accessToken", BotClient.this.name);
+            join.addProperty("selectedProfile", uuid.toString().replace("-", ""));
+            join.addProperty("serverId", serverHash);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(BotClient.this.sessionHost + "/session/minecraft/join"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(join.toString()))
+                    .build();
+            HTTP_CLIENT.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenCompleteAsync((response, cause) -> {
+                if (cause == null && response.statusCode() != 204) {
+                    cause = new IllegalStateException("Join failed with status " + response.statusCode());
+                }
+                if (cause != null) {
+                    this.channel.pipeline().fireExceptionCaught(cause);
+                    return;
+                }
+                this.channel.writeAndFlush(loginKey).addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
+                try {
+                    this.channel.attr(MCPipeline.ENCRYPTION_ATTRIBUTE_KEY).set(new AESEncryption(secretKey));
+                } catch (GeneralSecurityException e) {
+                    this.channel.pipeline().fireExceptionCaught(e);
+                }
+            }, this.channel.eventLoop());
+        }
+
+        private void move() {
+            this.tick++;
+            ByteBuf move = this.channel.alloc().buffer(40);
+            PacketTypes.writeVarInt(move, this.movePlayerId);
+            move.writeDouble(100D + (this.tick % 100) * 0.2D);
+            move.writeDouble(64D);
+            move.writeDouble(-100D);
+            move.writeFloat((this.tick * 3) % 360);
+            move.writeFloat(0F);
+            move.writeBoolean(true);
+            this.channel.write(move, this.channel.voidPromise());
+            //keep alive id carries the send time
+            ByteBuf keepAlive = this.channel.alloc().buffer(9);
+            PacketTypes.writeVarInt(keepAlive, this.keepAliveServerboundId);
+            keepAlive.writeLong(System.nanoTime());
+            this.channel.write(keepAlive, this.channel.voidPromise());
+            this.channel.flush();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * This file is part of faker - https://github.com/o1seth/faker
+ * Copyright (C) 2024 o1seth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.java.faker.benchmark.load;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+//Cold starts the shadow jar with and without the application class data sharing archive.
+//Each run exits once startup completes (-Dfaker.exitAfterStartup=true) and reports its uptime and resident set size.
+//Usage: --jar=faker-all.jar --archive=faker-all.jsa --runs=10 [--faker-directory=dir]
+//       [application args, e.g. --headless --server=127.0.0.1:25565 --no-dhcp --no-redirect]
+public class CdsStartupBenchmark {
+    private static final String MARKER = "Startup complete after ";
+
+    public static void main(String[] args) throws Exception {
+        String jar = null;
+        String archive = null;
+        int runs = 10;
+        String fakerDirectory = null;
+        List<String> appArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--jar=")) {
+                jar = arg.substring(6);
+            } else if (arg.startsWith("--archive=")) {
+                archive = arg.substring(10);
+            } else if (arg.startsWith("--runs=")) {
+                runs = Integer.parseInt(arg.substring(7));
+            } else if (arg.startsWith("--faker-directory=")) {
+                fakerDirectory = arg.substring(18);
+            } else {
+                appArgs.add(arg);
+            }
+        }
+        if (jar == null || archive == null) {
+            throw new IllegalArgumentException("--jar and --archive are required");
+        }
+        if (!new File(archive).isFile()) {
+            throw new IllegalArgumentException("Archive " + archive + " does not exist, run the cdsArchive task first");
+        }
+
+        //one untimed launch each so the jar and archive are in the page cache for both variants
+        launch(jar, null, fakerDirectory, appArgs);
+        launch(jar, archive, fakerDirectory, appArgs);
+        Result without = new Result();
+        Result with = new Result();
+        for (int i = 0; i < runs; i++) {
+            without.add(launch(jar, null, fakerDirectory, appArgs));
+            with.add(launch(jar, archive, fakerDirectory, appArgs));
+        }
+        without.print("without archive");
+        with.print("with archive");
+    }
+
+    //wall time to exit in ms, uptime at startup complete in ms, rss in KiB
+    private static long[] launch(String jar, String archive, String fakerDirectory, List<String> appArgs) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        if (archive != null) {
+            command.add("-XX:SharedArchiveFile=" + archive);
+            command.add("-Xshare:auto");
+        }
+        command.add("-Dfaker.exitAfterStartup=true");
+        if (fakerDirectory != null) {
+            command.add("-Dfaker.directory=" + fakerDirectory);
+        }
+        command.addAll(Arrays.asList("-jar", jar));
+        command.addAll(appArgs);
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        long[] result = null;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int index = line.indexOf(MARKER);
+                if (index >= 0) {
+                    //Startup complete after <ms> ms, rss <kib> KiB
+                    String[] parts = line.substring(index + MARKER.length()).split(" ");
+                    result = new long[]{0, Long.parseLong(parts[0]), Long.parseLong(parts[3])};
+                }
+            }
+        }
+        process.waitFor();
+        if (result == null) {
+            throw new IllegalStateException("Application exited with " + process.exitValue() + " before startup completed");
+        }
+        result[0] = (System.nanoTime() - start) / 1_000_000L;
+        return result;
+    }
+
+    private static class Result {
+        private final List<Long> wall = new ArrayList<>();
+        private final List<Long> uptime = new ArrayList<>();
+        private final List<Long> rss = new ArrayList<>();
+
+        private void add(long[] run) {
+            this.wall.add(run[0]);
+            this.uptime.add(run[1]);
+            this.rss.add(run[2]);
+        }
+
+        private void print(String name) {
+            System.out.println();
+            System.out.println("== " + name + " ==");
+            System.out.println("time to exit p50/max: " + median(this.wall) + " / " + Collections.max(this.wall) + " ms");
+            System.out.println("startup complete p50/max: " + median(this.uptime) + " / " + Collections.max(this.uptime) + " ms");
+            long rss = median(this.rss);
+            System.out.println(rss < 0 ? "rss: not available on this platform" : String.format(Locale.ROOT, "rss p50: %.1f MiB", rss / 1024D));
+        }
+
+        private static long median(List<Long> values) {
+            List<Long> sorted = new ArrayList<>(values);
+            Collections.sort(sorted);
+            return sorted.get((sorted.size() - 1) / 2);
+        }
+    }
+}
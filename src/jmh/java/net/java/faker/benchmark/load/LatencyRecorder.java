@@ -0,0 +1,60 @@
+/*
+ * This file is part of faker - https://github.com/o1seth/faker
+ * Copyright (C) 2024 o1seth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.java.faker.benchmark.load;
+
+import java.util.Arrays;
+
+//keeps every sample, runs are short enough for that
+public class LatencyRecorder {
+    private long[] samples = new long[1 << 16];
+    private int size;
+
+    public synchronized void record(long nanos) {
+        if (this.size == this.samples.length) {
+            this.samples = Arrays.copyOf(this.samples, this.samples.length * 2);
+        }
+        this.samples[this.size++] = nanos;
+    }
+
+    public synchronized void reset() {
+        this.size = 0;
+    }
+
+    public synchronized void addTo(LatencyRecorder other) {
+        for (int i = 0; i < this.size; i++) {
+            other.record(this.samples[i]);
+        }
+    }
+
+    public synchronized int count() {
+        return this.size;
+    }
+
+    //returns nanoseconds, -1 if nothing was recorded
+    public synchronized long percentile(double percentile) {
+        if (this.size == 0) {
+            return -1;
+        }
+        long[] sorted = Arrays.copyOf(this.samples, this.size);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100D * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * This file is part of faker - https://github.com/o1seth/faker
+ * Copyright (C) 2024 o1seth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.java.faker.benchmark.load;
+
+import net.java.faker.Proxy;
+import net.java.faker.proxy.session.SessionRegistry;
+import net.java.faker.save.Config;
+import net.raphimc.netminecraft.constants.MCPipeline;
+import net.raphimc.netminecraft.constants.MCVersion;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+//Starts a stand-in server, optionally the proxy, and two bots (a dual session when proxied).
+//Usage: --version=340 --warmup=5 --duration=20 --rate=200 --entities=20 --moves=20 --mode=both|proxy|direct
+//Cpu time and allocations are process wide, so the direct run is the baseline for the proxied one.
+public class LoadHarness {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        int version = Integer.parseInt(options.getOrDefault("version", "340"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "5"));
+        int duration = Integer.parseInt(options.getOrDefault("duration", "20"));
+        int rate = Integer.parseInt(options.getOrDefault("rate", "200"));
+        int entities = Integer.parseInt(options.getOrDefault("entities", "20"));
+        int moves = Integer.parseInt(options.getOrDefault("moves", "20"));
+        String mode = options.getOrDefault("mode", "both");
+        //no configuration state in the stand-in server and keep alive ids are longs since 1.12.2
+        if (version < MCVersion.v1_12_2 || version >= MCVersion.v1_20_2) {
+            throw new IllegalArgumentException("Supported protocol versions: " + MCVersion.v1_12_2 + " - " + (MCVersion.v1_20_2 - 1));
+        }
+        MCPipeline.useOptimizedPipeline();
+
+        Result direct = null;
+        Result proxied = null;
+        if (!mode.equals("proxy")) {
+            direct = run(false, version, warmup, duration, rate, entities, moves);
+            print("direct", direct);
+        }
+        if (!mode.equals("direct")) {
+            proxied = run(true, version, warmup, duration, rate, entities, moves);
+            print("proxy", proxied);
+        }
+        if (direct != null && proxied != null) {
+            System.out.println();
+            System.out.println("added latency s2c p50/p99: " + millis(proxied.s2cP50 - direct.s2cP50) + " / " + millis(proxied.s2cP99 - direct.s2cP99) + " ms");
+            System.out.println("added latency c2s p50/p99: " + millis(proxied.c2sP50 - direct.c2sP50) + " / " + millis(proxied.c2sP99 - direct.c2sP99) + " ms");
+        }
+        System.exit(0);
+    }
+
+    private static Result run(boolean proxy, int version, int warmup, int duration, int rate, int entities, int moves) throws Exception {
+        StandInServer server = new StandInServer(rate, entities);
+        InetSocketAddress serverAddress = server.start();
+        InetSocketAddress connectAddress = serverAddress;
+        if (proxy) {
+            connectAddress = startProxy(serverAddress, false);
+        }
+        BotClient main = new BotClient("bot_main", version, moves, serverAddress);
+        BotClient side = new BotClient("bot_side", version, moves, serverAddress);
+        try {
+            main.connect(connectAddress);
+            if (proxy) {
+                //the second client must reach the proxy after the first one became the main connection
+                long deadline = System.currentTimeMillis() + 5000;
+                while (SessionRegistry.getPendingCount() == 0) {
+                    if (System.currentTimeMillis() > deadline) {
+                        throw new IllegalStateException("Main connection was not created");
+                    }
+                    Thread.sleep(10);
+                }
+            }
+            side.connect(connectAddress);
+            main.getPlayFuture().get(10, TimeUnit.SECONDS);
+            side.getPlayFuture().get(10, TimeUnit.SECONDS);
+
+            Thread.sleep(TimeUnit.SECONDS.toMillis(warmup));
+            server.reset();
+            main.reset();
+            side.reset();
+            com.sun.management.OperatingSystemMXBean os = (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+            long cpuStart = os.getProcessCpuTime();
+            long allocatedStart = allocatedBytes();
+            long start = System.nanoTime();
+
+            Thread.sleep(TimeUnit.SECONDS.toMillis(duration));
+
+            double seconds = (System.nanoTime() - start) / 1e9D;
+            long cpu = os.getProcessCpuTime() - cpuStart;
+            long allocated = allocatedBytes() - allocatedStart;
+
+            LatencyRecorder s2c = new LatencyRecorder();
+            main.getS2cLatency().addTo(s2c);
+            side.getS2cLatency().addTo(s2c);
+            Result result = new Result();
+            result.s2cBytes = main.getTrafficCounter().getBytesIn() + side.getTrafficCounter().getBytesIn();
+            result.c2sBytes = server.getTrafficCounter().getBytesIn();
+            result.seconds = seconds;
+            result.s2cP50 = s2c.percentile(50);
+            result.s2cP99 = s2c.percentile(99);
+            result.s2cSamples = s2c.count();
+            result.c2sP50 = server.getC2sLatency().percentile(50);
+            result.c2sP99 = server.getC2sLatency().percentile(99);
+            result.c2sSamples = server.getC2sLatency().count();
+            result.cpuNanos = cpu;
+            result.allocatedBytes = allocated;
+            result.skippedBatches = server.getSkippedBatches();
+            return result;
+        } finally {
+            main.close();
+            side.close();
+            if (proxy) {
+                Proxy.stopProxy();
+            }
+            server.stop();
+        }
+    }
+
+    //proxy on an ephemeral loopback port with all windows only features turned off
+    public static InetSocketAddress startProxy(InetSocketAddress serverAddress, boolean onlineMode) throws IOException {
+        File configFile = File.createTempFile("faker_load_config", ".json");
+        configFile.delete();
+        configFile.deleteOnExit();
+        Config config = new Config(configFile);
+        config.setServerAddress(serverAddress.getHostString() + ":" + serverAddress.getPort());
+        config.onlineMode.set(onlineMode);
+        config.routerSpoof.set(false);
+        config.blockTraffic.set(false);
+        config.tracerouteFix.set(false);
+        config.mdnsDisable.set(false);
+        Proxy.setConfig(config);
+        Proxy.proxyAddress = new InetSocketAddress("127.0.0.1", 0);
+        Proxy.startProxy();
+        return Proxy.proxyAddress;
+    }
+
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long total = 0;
+        for (long allocated : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            if (allocated > 0) {
+                total += allocated;
+            }
+        }
+        return total;
+    }
+
+    private static void print(String name, Result result) {
+        double mb = (result.s2cBytes + result.c2sBytes) / (1024D * 1024D);
+        System.out.println();
+        System.out.println("== " + name + " ==");
+        System.out.println(String.format(Locale.ROOT, "s2c throughput: %.2f MB/s (%d samples)", result.s2cBytes / (1024D * 1024D) / result.seconds, result.s2cSamples));
+        System.out.println(String.format(Locale.ROOT, "c2s throughput: %.2f MB/s (%d samples)", result.c2sBytes / (1024D * 1024D) / result.seconds, result.c2sSamples));
+        System.out.println("s2c latency p50/p99: " + millis(result.s2cP50) + " / " + millis(result.s2cP99) + " ms");
+        System.out.println("c2s latency p50/p99: " + millis(result.c2sP50) + " / " + millis(result.c2sP99) + " ms");
+        System.out.println(String.format(Locale.ROOT, "cpu: %.2f ms per MB", mb == 0 ? 0 : result.cpuNanos / 1e6D / mb));
+        System.out.println(String.format(Locale.ROOT, "allocation rate: %.2f MB/s", result.allocatedBytes / (1024D * 1024D) / result.seconds));
+        if (result.skippedBatches > 0) {
+            System.out.println("server skipped " + result.skippedBatches + " batches, channel was not writable");
+        }
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1e6D);
+    }
+
+    private static class Result {
+        private long s2cBytes;
+        private long c2sBytes;
+        private double seconds;
+        private long s2cP50;
+        private long s2cP99;
+        private int s2cSamples;
+        private long c2sP50;
+        private long c2sP99;
+        private int c2sSamples;
+        private long cpuNanos;
+        private long allocatedBytes;
+        private long skippedBatches;
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * This file is part of faker - https://github.com/o1seth/faker
+ * Copyright (C) 2024 o1seth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.java.faker.benchmark.load;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.DefaultChannelGroup;
+import io.netty.util.concurrent.GlobalEventExecutor;
+import io.netty.util.concurrent.ScheduledFuture;
+import net.java.faker.proxy.PacketRegistry;
+import net.java.faker.proxy.packet.S2CEntityPositionSync;
+import net.java.faker.proxy.packet.S2CSetEntityMotion;
+import net.raphimc.netminecraft.constants.ConnectionState;
+import net.raphimc.netminecraft.constants.MCPackets;
+import net.raphimc.netminecraft.constants.MCPipeline;
+import net.raphimc.netminecraft.constants.MCVersion;
+import net.raphimc.netminecraft.netty.connection.MinecraftChannelInitializer;
+import net.raphimc.netminecraft.netty.connection.NetServer;
+import net.raphimc.netminecraft.packet.Packet;
+import net.raphimc.netminecraft.packet.PacketTypes;
+import net.raphimc.netminecraft.packet.UnknownPacket;
+import net.raphimc.netminecraft.packet.impl.handshaking.C2SHandshakingClientIntentionPacket;
+import net.raphimc.netminecraft.packet.impl.login.C2SLoginHelloPacket;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+//offline mode server without a world. Accepts any login and streams synthetic entity traffic
+public class StandInServer {
+    private static final int LOGIN_GAME_PROFILE_ID = 0x02;
+
+    private final int batchesPerSecond;
+    private final int entitiesPerBatch;
+    private final TrafficCounter trafficCounter = new TrafficCounter();
+    private final LatencyRecorder c2sLatency = new LatencyRecorder();
+    private final LongAdder skippedBatches = new LongAdder();
+    private final AtomicInteger nextEntityId = new AtomicInteger(1);
+    private final ChannelGroup connections = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
+    private NetServer server;
+
+    public StandInServer(int batchesPerSecond, int entitiesPerBatch) {
+        this.batchesPerSecond = batchesPerSecond;
+        this.entitiesPerBatch = entitiesPerBatch;
+    }
+
+    public InetSocketAddress start() {
+        this.server = new NetServer(ConnectionHandler::new, ServerChannelInitializer::new);
+        this.server.bind(new InetSocketAddress("127.0.0.1", 0), false);
+        return (InetSocketAddress) this.server.getChannel().localAddress();
+    }
+
+    public void stop() {
+        this.connections.close().syncUninterruptibly();
+        if (this.server != null) {
+            this.server.getChannel().close().syncUninterruptibly();
+            this.server = null;
+        }
+    }
+
+    public TrafficCounter getTrafficCounter() {
+        return this.trafficCounter;
+    }
+
+    public LatencyRecorder getC2sLatency() {
+        return this.c2sLatency;
+    }
+
+    public long getSkippedBatches() {
+        return this.skippedBatches.sum();
+    }
+
+    public void reset() {
+        this.trafficCounter.reset();
+        this.c2sLatency.reset();
+        this.skippedBatches.reset();
+    }
+
+    private class ServerChannelInitializer extends MinecraftChannelInitializer {
+
+        ServerChannelInitializer(final Supplier<ChannelHandler> handlerSupplier) {
+            super(handlerSupplier);
+        }
+
+        @Override
+        protected void initChannel(Channel channel) {
+            super.initChannel(channel);
+            channel.pipeline().addFirst(TrafficCounter.TRAFFIC_COUNTER_NAME, StandInServer.this.trafficCounter);
+            channel.attr(MCPipeline.PACKET_REGISTRY_ATTRIBUTE_KEY).set(new PacketRegistry(false, -1));
+        }
+    }
+
+    private class ConnectionHandler extends SimpleChannelInboundHandler<Packet> {
+        private final S2CEntityPositionSync positionSync = new S2CEntityPositionSync();
+        private final S2CSetEntityMotion entityMotion = new S2CSetEntityMotion();
+        private Channel channel;
+        private int version;
+        private int keepAliveClientboundId;
+        private int keepAliveServerboundId;
+        private ScheduledFuture<?> traffic;
+        private long tick;
+
+        @Override
+        public void channelActive(ChannelHandlerContext ctx) throws Exception {
+            super.channelActive(ctx);
+            this.channel = ctx.channel();
+            StandInServer.this.connections.add(this.channel);
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+            super.channelInactive(ctx);
+            if (this.traffic != null) {
+                this.traffic.cancel(false);
+            }
+        }
+
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, Packet packet) {
+            if (packet instanceof C2SHandshakingClientIntentionPacket handshake) {
+                this.version = handshake.protocolVersion;
+                this.keepAliveClientboundId = MCPackets.S2C_KEEP_ALIVE.getId(this.version);
+                this.keepAliveServerboundId = MCPackets.C2S_KEEP_ALIVE.getId(this.version);
+                PacketRegistry registry = new PacketRegistry(false, this.version);
+                registry.setConnectionState(handshake.intendedState.getConnectionState());
+                this.channel.attr(MCPipeline.PACKET_REGISTRY_ATTRIBUTE_KEY).set(registry);
+            } else if (packet instanceof C2SLoginHelloPacket loginHello) {
+                this.writeGameProfile(loginHello.name);
+                this.channel.attr(MCPipeline.PACKET_REGISTRY_ATTRIBUTE_KEY).get().setConnectionState(ConnectionState.PLAY);
+                this.writeJoinGame();
+                this.channel.flush();
+                long period = TimeUnit.SECONDS.toNanos(1) / StandInServer.this.batchesPerSecond;
+                this.traffic = this.channel.eventLoop().scheduleAtFixedRate(this::sendBatch, period, period, TimeUnit.NANOSECONDS);
+            } else if (packet instanceof UnknownPacket unknown && unknown.packetId == this.keepAliveServerboundId) {
+                long sent = Unpooled.wrappedBuffer(unknown.data).readLong();
+                StandInServer.this.c2sLatency.record(System.nanoTime() - sent);
+            }
+        }
+
+        private void writeGameProfile(String name) {
+            UUID uuid = UUID.nameUUIDFromBytes(("OfflinePlayer:" + name).getBytes(StandardCharsets.UTF_8));
+            ByteBuf buf = this.channel.alloc().buffer();
+            PacketTypes.writeVarInt(buf, LOGIN_GAME_PROFILE_ID);
+            if (this.version >= MCVersion.v1_16) {
+                PacketTypes.writeUuid(buf, uuid);
+            } else {
+                PacketTypes.writeString(buf, uuid.toString());
+            }
+            PacketTypes.writeString(buf, name);
+            if (this.version >= MCVersion.v1_19) {
+                PacketTypes.writeVarInt(buf, 0);//properties
+            }
+            this.channel.write(buf, this.channel.voidPromise());
+        }
+
+        private void writeJoinGame() {
+            //the proxy only reads the entity id, clients in this harness read nothing
+            ByteBuf buf = this.channel.alloc().buffer();
+            PacketTypes.writeVarInt(buf, MCPackets.S2C_LOGIN.getId(this.version));
+            buf.writeInt(StandInServer.this.nextEntityId.getAndIncrement());
+            buf.writeZero(16);
+            this.channel.write(buf, this.channel.voidPromise());
+        }
+
+        private void sendBatch() {
+            if (!this.channel.isWritable()) {
+                StandInServer.this.skippedBatches.increment();
+                return;
+            }
+            this.tick++;
+            int positionSyncId = (this.version >= MCVersion.v1_21_2 ? MCPackets.S2C_ENTITY_POSITION_SYNC : MCPackets.S2C_TELEPORT_ENTITY).getId(this.version);
+            for (int i = 0; i < StandInServer.this.entitiesPerBatch; i++) {
+                Packet packet;
+                int packetId;
+                if ((i & 1) == 0) {
+                    this.positionSync.entityId = 1000 + i;
+                    this.positionSync.x = 100D + (this.tick % 200) * 0.1D;
+                    this.positionSync.y = 64D;
+                    this.positionSync.z = -100D + i;
+                    this.positionSync.yaw = (this.tick * 7) % 360;
+                    this.positionSync.onGround = true;
+                    packet = this.positionSync;
+                    packetId = positionSyncId;
+                } else {
+                    this.entityMotion.entityId = 1000 + i;
+                    this.entityMotion.motionX = 0.1D;
+                    this.entityMotion.motionY = -0.08D;
+                    this.entityMotion.motionZ = 0.05D;
+                    packet = this.entityMotion;
+                    packetId = MCPackets.S2C_SET_ENTITY_MOTION.getId(this.version);
+                }
+                ByteBuf buf = this.channel.alloc().buffer();
+                PacketTypes.writeVarInt(buf, packetId);
+                packet.write(buf, this.version);
+                this.channel.write(buf, this.channel.voidPromise());
+            }
+            //keep alive id carries the send time
+            ByteBuf keepAlive = this.channel.alloc().buffer(9);
+            PacketTypes.writeVarInt(keepAlive, this.keepAliveClientboundId);
+            keepAlive.writeLong(System.nanoTime());
+            this.channel.write(keepAlive, this.channel.voidPromise());
+            this.channel.flush();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * This file is part of faker - https://github.com/o1seth/faker
+ * Copyright (C) 2024 o1seth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.java.faker.benchmark.load;
+
+import net.java.faker.Proxy;
+import net.java.faker.ui.Window;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+//Starts the application in fresh JVMs and reports time to first paint and time to proxy ready, both from process start.
+//Needs a display. Usage: --runs=10
+public class StartupHarness {
+    private static final String RESULT_PREFIX = "startup-result ";
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            } else if (arg.equals("--probe")) {
+                probe();
+                return;
+            }
+        }
+        int runs = Integer.parseInt(options.getOrDefault("runs", "10"));
+
+        List<Long> firstPaint = new ArrayList<>();
+        List<Long> proxyReady = new ArrayList<>();
+        for (int i = 0; i < runs; i++) {
+            long[] result = runProbe();
+            System.out.println("run " + (i + 1) + ": first paint " + result[0] + " ms, proxy ready " + result[1] + " ms");
+            firstPaint.add(result[0]);
+            proxyReady.add(result[1]);
+        }
+        System.out.println();
+        print("time to first paint", firstPaint);
+        print("time to proxy ready", proxyReady);
+    }
+
+    private static long[] runProbe() throws Exception {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        ProcessBuilder builder = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), StartupHarness.class.getName(), "--probe");
+        builder.redirectErrorStream(true);
+        Process process = builder.start();
+        long[] result = null;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int index = line.indexOf(RESULT_PREFIX);
+                if (index >= 0) {
+                    String[] parts = line.substring(index + RESULT_PREFIX.length()).trim().split(" ");
+                    result = new long[]{Long.parseLong(parts[0]), Long.parseLong(parts[1])};
+                }
+            }
+        }
+        process.waitFor();
+        if (result == null) {
+            throw new IllegalStateException("Probe exited with " + process.exitValue() + " without a result");
+        }
+        return result;
+    }
+
+    //runs inside the started jvm
+    private static void probe() throws Exception {
+        long start = ProcessHandle.current().info().startInstant().orElseThrow().toEpochMilli();
+        Proxy.main(new String[0]);
+        Window window = Window.getInstance();
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (window.getFirstPaintTime() == 0) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new IllegalStateException("Window was not painted");
+            }
+            Thread.sleep(1);
+        }
+        long firstPaint = window.getFirstPaintTime() - start;
+
+        //same start path as the start button, minus the windows only features
+        LoadHarness.startProxy(new InetSocketAddress("127.0.0.1", 25565), false);
+        long proxyReady = System.currentTimeMillis() - start;
+        System.out.println(RESULT_PREFIX + firstPaint + " " + proxyReady);
+        System.out.flush();
+        System.exit(0);
+    }
+
+    private static void print(String name, List<Long> values) {
+        List<Long> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        long p50 = sorted.get((sorted.size() - 1) / 2);
+        long p90 = sorted.get((int) Math.ceil(sorted.size() * 0.9D) - 1);
+        System.out.println(name + " p50/p90/max: " + p50 + " / " + p90 + " / " + sorted.get(sorted.size() - 1) + " ms");
+    }
+}
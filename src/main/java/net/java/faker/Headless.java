@@ -0,0 +1,219 @@
+/*
+ * This file is part of faker - https://github.com/o1seth/faker
+ * Copyright (C) 2024 o1seth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.java.faker;
+
+import net.java.faker.auth.Account;
+import net.java.faker.proxy.dhcp.Dhcp;
+import net.java.faker.save.Config;
+import net.java.faker.util.logging.Logger;
+import net.java.faker.util.network.NetworkInterface;
+import net.java.faker.util.network.NetworkUtil;
+
+import java.net.InetSocketAddress;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+//Runs the proxy without any ui classes, driven by the saved config and command line overrides.
+//Overrides are not saved. Status goes to the log and, with -Dfaker.metricsPort, to the metrics endpoint.
+//Usage: --headless [--server=host:port] [--bind=host:port] [--account=name] [--online=true|false]
+//       [--adapter=mac|name] [--dhcp] [--dhcp-interface=mac|name] [--dhcp-ip=ip] [--dhcp-mask=mask]
+//       [--dhcp-start=ip] [--dhcp-end=ip] [--dns=ip,ip] [--no-dhcp] [--no-redirect]
+//-Dfaker.directory=path uses another directory for config, accounts and leases, e.g. for training or benchmark runs.
+public class Headless {
+
+    public static boolean isRequested(String[] args) {
+        if (args != null) {
+            for (String arg : args) {
+                if ("--headless".equalsIgnoreCase(arg)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public static void run(String[] args) {
+        Map<String, String> options = parse(args);
+        Config config = Proxy.getConfig();
+        if (options.containsKey("server")) {
+            config.setServerAddress(options.get("server"));
+        }
+        if (options.containsKey("online")) {
+            config.onlineMode.set(Boolean.parseBoolean(options.get("online")));
+        }
+        if (options.containsKey("bind")) {
+            InetSocketAddress bind = parseBind(options.get("bind"));
+            if (bind == null) {
+                Logger.error("Invalid bind address " + options.get("bind") + ", pass --bind=host:port or --bind=[ipv6]:port");
+                System.exit(1);
+            }
+            Proxy.proxyAddress = bind;
+        }
+        if (config.getTargetAddress() == null) {
+            Logger.error("No server address, set one in the config or pass --server=host:port");
+            System.exit(1);
+        }
+
+        if (options.containsKey("no-redirect")) {
+            Proxy.redirectDisabled = true;
+        }
+
+        selectAccount(options.getOrDefault("account", config.account.get()));
+        if (WinRedirect.isSupported() && !Proxy.redirectDisabled) {
+            selectTargetAdapter(options.getOrDefault("adapter", config.targetAdapter.get()));
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (Dhcp.isStarted()) {
+                Dhcp.stop();
+            }
+        }, "headless-shutdown"));
+
+        if (!options.containsKey("no-dhcp") && (options.containsKey("dhcp") || config.dhcp_started.get())) {
+            startDhcp(options, config);
+        }
+        try {
+            Proxy.startProxy();
+        } catch (Throwable t) {
+            Logger.error("Failed to start proxy", t);
+            System.exit(1);
+        }
+        Logger.info("Proxy running on " + Proxy.proxyAddress + ", forwarding to " + config.getServerAddress() + (Proxy.getAccount() == null ? "" : " as " + Proxy.getAccount().getName()));
+        Proxy.startupComplete();
+    }
+
+    private static void selectAccount(String name) {
+        if (name == null || name.isEmpty()) {
+            return;
+        }
+        Proxy.getAccountManager().awaitLoaded();
+        for (Account account : Proxy.getAccountManager().getAccounts()) {
+            if (name.equalsIgnoreCase(account.getName())) {
+                Proxy.setAccount(account);
+                try {
+                    if (account.refresh()) {
+                        Proxy.getAccountManager().save();
+                    }
+                } catch (Throwable t) {
+                    Logger.error("Failed to refresh account " + name, t);
+                }
+                Logger.info("Using account " + account.getName());
+                return;
+            }
+        }
+        Logger.warn("Account " + name + " not found, continuing without an account");
+    }
+
+    private static void selectTargetAdapter(String adapter) {
+        List<NetworkInterface> interfaces = NetworkUtil.getNetworkInterfaces();
+        NetworkInterface selected;
+        if (adapter == null) {
+            selected = NetworkUtil.findPotentialWifiHotspotInterface(interfaces);
+        } else if (adapter.equals("null")) {
+            selected = null;
+        } else {
+            selected = findInterface(interfaces, adapter);
+            if (selected == null) {
+                Logger.warn("Network adapter " + adapter + " not found");
+            }
+        }
+        if (selected != null) {
+            Logger.info("Target adapter " + selected.getDisplayName());
+            Proxy.setTargetAdapter(selected);
+        }
+    }
+
+    private static void startDhcp(Map<String, String> options, Config config) {
+        String name = options.getOrDefault("dhcp-interface", config.dhcp_interface.get());
+        NetworkInterface ni = name == null ? null : findInterface(NetworkUtil.getNetworkInterfaces(), name);
+        if (ni == null) {
+            Logger.error("Failed to start DHCP: network interface " + name + " not found");
+            return;
+        }
+        if (ni.hasInternetAccess()) {
+            Logger.error("Failed to start DHCP: network interface " + ni.getDisplayName() + " has internet access");
+            return;
+        }
+        String[] dns = options.containsKey("dns") ? options.get("dns").split(",") : new String[]{config.dhcp_dns1.get(), config.dhcp_dns2.get()};
+        try {
+            Dhcp.start(ni,
+                    options.getOrDefault("dhcp-ip", config.dhcp_ip.get()),
+                    options.getOrDefault("dhcp-mask", config.dhcp_mask.get()),
+                    options.getOrDefault("dhcp-start", config.dhcp_startIp.get()),
+                    options.getOrDefault("dhcp-end", config.dhcp_endIp.get()),
+                    dns);
+        } catch (Throwable t) {
+            Logger.error("Failed to start DHCP", t);
+        }
+    }
+
+    //matches the mac format the config stores, the interface name or the display name
+    private static NetworkInterface findInterface(List<NetworkInterface> interfaces, String name) {
+        for (NetworkInterface ni : interfaces) {
+            if (name.equals(NetworkUtil.toWindowsMac(ni.getHardwareAddress())) || name.equals(ni.getName()) || name.equals(ni.getDisplayName())) {
+                return ni;
+            }
+        }
+        return null;
+    }
+
+    private static InetSocketAddress parseBind(String bind) {
+        int index = bind.lastIndexOf(':');
+        if (index <= 0) {
+            return null;
+        }
+        String host = bind.substring(0, index);
+        if (host.startsWith("[") && host.endsWith("]")) {
+            host = host.substring(1, host.length() - 1);
+        } else if (host.indexOf(':') >= 0) {
+            //an ipv6 address without brackets, the port can't be told apart
+            return null;
+        }
+        int port;
+        try {
+            port = Integer.parseInt(bind.substring(index + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (host.isEmpty() || port < 0 || port > 65535) {
+            return null;
+        }
+        InetSocketAddress address = new InetSocketAddress(host, port);
+        return address.isUnresolved() ? null : address;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        if (args != null) {
+            for (String arg : args) {
+                if (!arg.startsWith("--")) {
+                    continue;
+                }
+                int index = arg.indexOf('=');
+                if (index < 0) {
+                    options.put(arg.substring(2).toLowerCase(), "true");
+                } else {
+                    options.put(arg.substring(2, index).toLowerCase(), arg.substring(index + 1));
+                }
+            }
+        }
+        return options;
+    }
+}
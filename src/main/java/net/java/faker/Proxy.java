@@ -24,14 +24,17 @@ import io.netty.channel.group.DefaultChannelGroup;
 import io.netty.util.ResourceLeakDetector;
 import io.netty.util.concurrent.GlobalEventExecutor;
 import net.java.faker.auth.Account;
+import net.java.faker.proxy.auth.AuthLibServices;
 import net.java.faker.proxy.client2proxy.Client2ProxyChannelInitializer;
 import net.java.faker.proxy.client2proxy.Client2ProxyHandler;
 import net.java.faker.proxy.event.ConnectEvent;
 import net.java.faker.proxy.event.Event;
+import net.java.faker.proxy.event.EventBus;
 import net.java.faker.proxy.event.ProxyStateEvent;
 import net.java.faker.proxy.event.RedirectStateChangeEvent;
-import net.java.faker.proxy.session.DualConnection;
+import net.java.faker.proxy.metrics.MetricsEndpoint;
 import net.java.faker.proxy.session.ProxyConnection;
+import net.java.faker.proxy.socket.SocketProfile;
 import net.java.faker.proxy.util.chat.Ints;
 import net.java.faker.save.AccountManager;
 import net.java.faker.save.Config;
@@ -47,32 +50,31 @@ import net.raphimc.netminecraft.netty.connection.NetServer;
 
 import java.io.File;
 import java.net.*;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.function.Consumer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 
 public class Proxy {
     public static final String VERSION = "1.0";
     public static InetSocketAddress proxyAddress = new InetSocketAddress("127.0.0.1", 25565);
+    //set by headless --no-redirect, the proxy only listens and touches no system network settings
+    public static boolean redirectDisabled;
 
     public static final int compressionThreshold = 256;
     public static final int connectTimeout = 8000;
-    public static DualConnection dualConnection;
 
     private static Config config;
     private static AccountManager accountManager;
     private static Account account;
 
     private static NetServer currentProxyServer;
-    private static ChannelGroup CLIENT_CHANNELS;
+    private static final ChannelGroup CLIENT_CHANNELS = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
     private static NetworkInterface targetAdapter;
 
     public static ChannelGroup getConnectedClients() {
         return CLIENT_CHANNELS;
     }
 
-    public static ArrayList<InetSocketAddress> connectedAddresses = new ArrayList<>();
-    private static final List<Consumer<Event>> events = new ArrayList<>();
+    private static final EventBus EVENT_BUS = new EventBus();
     public static long forward_redirect;
     public static long redirect;
     private static long mdns;
@@ -111,7 +113,10 @@ public class Proxy {
 
     public static void main(String[] args) {
         System.setProperty("file.encoding", "UTF-8");
-        if (args != null) {
+        boolean headless = Headless.isRequested(args);
+        if (headless) {
+            System.setProperty("java.awt.headless", "true");
+        } else if (args != null) {
             for (String arg : args) {
                 if ("--showdebug".equalsIgnoreCase(arg)) {
                     AdvancedTab.showDebug = true;
@@ -123,28 +128,33 @@ public class Proxy {
         loadNetty();
         config = new Config(new File(getFakerDirectory(), "faker_config.json"));
         accountManager = new AccountManager(new File(getFakerDirectory(), "faker_accounts.json"));
-        Window.getInstance();
+        MetricsEndpoint.startIfConfigured();
         registerEvents();
+        if (headless) {
+            //no swing, awt or ui classes are touched on this path
+            Headless.run(args);
+        } else {
+            Window.getInstance();
+        }
     }
 
     private static void registerEvents() {
 
-        registerEvent(e -> {
-            //uses if block traffic or router spoof was failed for some reason
-            if (e instanceof ConnectEvent event) {
-                if (event.getConnection().isRedirected()) {
-                    InetAddress realSrc = event.getConnection().getRealSrcAddress().getAddress();
-                    if (realSrc instanceof Inet4Address ipv4) {
-                        if (getConfig().blockTraffic.get() && blockTraffic == 0) {
-                            if (!NetworkUtil.isFromNetworkWithInternetAccess(ipv4)) {
-                                startBlockTraffic(ipv4);
-                            }
+        //uses if block traffic or router spoof was failed for some reason
+        //network interfaces lookups are slow, keep them off the netty thread
+        EVENT_BUS.subscribe(ConnectEvent.class, EventBus.ASYNC, event -> {
+            if (event.getConnection().isRedirected()) {
+                InetAddress realSrc = event.getConnection().getRealSrcAddress().getAddress();
+                if (realSrc instanceof Inet4Address ipv4) {
+                    if (getConfig().blockTraffic.get() && blockTraffic == 0) {
+                        if (!NetworkUtil.isFromNetworkWithInternetAccess(ipv4)) {
+                            startBlockTraffic(ipv4);
                         }
+                    }
 
-                        if (getConfig().routerSpoof.get() && routerPortForward == 0 && routerBlockTraffic == 0) {
-                            if (!NetworkUtil.isFromNetworkWithInternetAccess(ipv4)) {
-                                startRouterBlockTraffic(ipv4);
-                            }
+                    if (getConfig().routerSpoof.get() && routerPortForward == 0 && routerBlockTraffic == 0) {
+                        if (!NetworkUtil.isFromNetworkWithInternetAccess(ipv4)) {
+                            startRouterBlockTraffic(ipv4);
                         }
                     }
                 }
@@ -180,25 +190,32 @@ public class Proxy {
                 //noinspection ConstantConditions
                 if (ex instanceof BindException) {
                     currentProxyServer.bind(new InetSocketAddress(proxyAddress.getAddress(), 0), false);
-                    proxyAddress = (InetSocketAddress) currentProxyServer.getChannel().localAddress();
                 }
             }
+            proxyAddress = (InetSocketAddress) currentProxyServer.getChannel().localAddress();
+            SocketProfile.CLIENT.applyToListener(currentProxyServer.getChannel());
             Logger.info("Bind proxy server to " + proxyAddress);
 
-            if (Proxy.getConfig().routerSpoof.get()) {
-                startPortForward();
-            }
-            if (Proxy.getConfig().blockTraffic.get()) {
-                startBlockTraffic();
-            }
+            if (!redirectDisabled) {
+                if (Proxy.getConfig().routerSpoof.get()) {
+                    startPortForward();
+                }
+                if (Proxy.getConfig().blockTraffic.get()) {
+                    startBlockTraffic();
+                }
 
-            startRedirect();
+                startRedirect();
 
-            if (Proxy.getConfig().tracerouteFix.get()) {
-                enableTtlFix();
+                if (Proxy.getConfig().tracerouteFix.get()) {
+                    enableTtlFix();
+                }
+                if (Proxy.getConfig().mdnsDisable.get()) {
+                    mdnsDisable();
+                }
             }
-            if (Proxy.getConfig().mdnsDisable.get()) {
-                mdnsDisable();
+
+            if (Proxy.getConfig().onlineMode.get()) {
+                AuthLibServices.preload(EventBus.ASYNC);
             }
 
             event(new ProxyStateEvent(ProxyStateEvent.State.STARTED));
@@ -244,13 +261,35 @@ public class Proxy {
         }
     }
 
+    //called once the window has built all tabs or the headless proxy is running.
+    //-Dfaker.exitAfterStartup=true ends the process here, used by the class data sharing training run and startup benchmarks
+    public static void startupComplete() {
+        long uptime = ProcessHandle.current().info().startInstant().map(start -> System.currentTimeMillis() - start.toEpochMilli()).orElse(-1L);
+        Logger.info("Startup complete after " + uptime + " ms, rss " + residentSetKiB() + " KiB");
+        if (Boolean.getBoolean("faker.exitAfterStartup")) {
+            System.exit(0);
+        }
+    }
+
+    //linux only, -1 elsewhere
+    private static long residentSetKiB() {
+        try {
+            for (String line : Files.readAllLines(Paths.get("/proc/self/status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.substring(6).trim().split("\\s+")[0]);
+                }
+            }
+        } catch (Exception ignored) {
+        }
+        return -1;
+    }
+
     private static void loadNetty() {
         ResourceLeakDetector.setLevel(ResourceLeakDetector.Level.DISABLED);
         if (System.getProperty("io.netty.allocator.maxOrder") == null) {
             System.setProperty("io.netty.allocator.maxOrder", "9");
         }
         MCPipeline.useOptimizedPipeline();
-        CLIENT_CHANNELS = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
     }
 
 
@@ -287,6 +326,10 @@ public class Proxy {
         return config;
     }
 
+    public static void setConfig(Config config) {
+        Proxy.config = config;
+    }
+
     public static NetworkInterface getTargetAdapter() {
         return targetAdapter;
     }
@@ -579,18 +622,12 @@ public class Proxy {
         }
     }
 
-    public static void registerEvent(Consumer<Event> consumer) {
-        events.add(consumer);
-    }
-
-    public static void unregisterEvent(Consumer<Event> consumer) {
-        events.remove(consumer);
+    public static EventBus getEventBus() {
+        return EVENT_BUS;
     }
 
     public static void event(Event event) {
-        for (Consumer<Event> c : events) {
-            c.accept(event);
-        }
+        EVENT_BUS.post(event);
     }
 
     private static String fakerDirectory;
@@ -598,7 +635,10 @@ public class Proxy {
     public static String getFakerDirectory() {
         if (fakerDirectory == null) {
             File dir;
-            if (Sys.isWindows()) {
+            String override = System.getProperty("faker.directory");
+            if (override != null && !override.isEmpty()) {
+                dir = new File(override);
+            } else if (Sys.isWindows()) {
                 String appdata = System.getenv("APPDATA");
                 if (appdata != null) {
                     dir = new File(appdata, ".faker");
@@ -51,6 +51,7 @@ public class PacketRegistry extends DefaultPacketRegistry {
             registerPacket(MCPackets.S2C_PING, S2CPing::new);
         } else {
             registerPacket(MCPackets.C2S_WINDOW_CONFIRMATION, C2SWindowConfirmation::new);
+            registerPacket(MCPackets.S2C_WINDOW_CONFIRMATION, S2CWindowConfirmation::new);
         }
 
         if (protocolVersion >= MCVersion.v1_21_2) {
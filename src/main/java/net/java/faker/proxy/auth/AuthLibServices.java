@@ -18,17 +18,60 @@
 
 package net.java.faker.proxy.auth;
 
+import com.mojang.authlib.Environment;
 import com.mojang.authlib.GameProfileRepository;
 import com.mojang.authlib.minecraft.MinecraftSessionService;
 import com.mojang.authlib.yggdrasil.YggdrasilAuthenticationService;
 
 import java.net.Proxy;
 import java.util.UUID;
+import java.util.concurrent.Executor;
 
 public class AuthLibServices {
+    //alternative endpoints, e.g. -Dfaker.sessionHost=http://127.0.0.1:8080 for a local session server
+    public static final String SESSION_HOST = System.getProperty("faker.sessionHost");
+    public static final String SERVICES_HOST = System.getProperty("faker.servicesHost");
 
-    public static final YggdrasilAuthenticationService AUTHENTICATION_SERVICE = new YggdrasilAuthenticationService(Proxy.NO_PROXY, UUID.randomUUID().toString());
-    public static final MinecraftSessionService SESSION_SERVICE = AUTHENTICATION_SERVICE.createMinecraftSessionService();
-    public static final GameProfileRepository PROFILE_REPOSITORY = AUTHENTICATION_SERVICE.createProfileRepository();
+    //authlib is only loaded on first use, offline sessions never touch it
+    private static class Holder {
+        private static final YggdrasilAuthenticationService AUTHENTICATION_SERVICE = createAuthenticationService();
+        private static final MinecraftSessionService SESSION_SERVICE = AUTHENTICATION_SERVICE.createMinecraftSessionService();
+        private static final GameProfileRepository PROFILE_REPOSITORY = AUTHENTICATION_SERVICE.createProfileRepository();
+    }
+
+    public static YggdrasilAuthenticationService getAuthenticationService() {
+        return Holder.AUTHENTICATION_SERVICE;
+    }
+
+    public static MinecraftSessionService getSessionService() {
+        return Holder.SESSION_SERVICE;
+    }
+
+    public static GameProfileRepository getProfileRepository() {
+        return Holder.PROFILE_REPOSITORY;
+    }
+
+    //warms the services up in the background so the first online login doesn't pay for class loading
+    public static void preload(Executor executor) {
+        executor.execute(AuthLibServices::getSessionService);
+    }
+
+    private static YggdrasilAuthenticationService createAuthenticationService() {
+        if (isEmpty(SESSION_HOST) && isEmpty(SERVICES_HOST)) {
+            return new YggdrasilAuthenticationService(Proxy.NO_PROXY, UUID.randomUUID().toString());
+        }
+        Environment environment = Environment.create(
+                "https://authserver.mojang.com",
+                "https://api.mojang.com",
+                isEmpty(SESSION_HOST) ? "https://sessionserver.mojang.com" : SESSION_HOST,
+                isEmpty(SERVICES_HOST) ? "https://api.minecraftservices.com" : SERVICES_HOST,
+                "CUSTOM"
+        );
+        return new YggdrasilAuthenticationService(Proxy.NO_PROXY, UUID.randomUUID().toString(), environment);
+    }
+
+    private static boolean isEmpty(String host) {
+        return host == null || host.isEmpty();
+    }
 
 }
@@ -19,6 +19,8 @@
 package net.java.faker.proxy.auth;
 
 import net.java.faker.Proxy;
+import net.java.faker.proxy.jfr.LoginStageEvent;
+import net.java.faker.proxy.metrics.EventLoopMonitor;
 import net.java.faker.proxy.session.DualConnection;
 import net.raphimc.minecraftauth.step.java.StepPlayerCertificates;
 import net.raphimc.netminecraft.constants.MCVersion;
@@ -43,6 +45,9 @@ public class ExternalInterface {
 
     public static void fillPlayerData(final ProxyConnection proxyConnection) {
         Logger.u_info("auth", proxyConnection, "Filling player data");
+        EventLoopMonitor.reportBlocking("fill player data");
+        LoginStageEvent event = new LoginStageEvent("fill player data");
+        event.begin();
         try {
             if (proxyConnection.getAccount() != null) {
                 final Account account = proxyConnection.getAccount();
@@ -77,6 +82,7 @@ public class ExternalInterface {
             Logger.error("Failed to fill player data", e);
             proxyConnection.kickClient("Failed to fill player data. This might be caused by outdated account tokens or rate limits. Wait a couple of seconds and try again. If the problem persists, remove and re-add your account.");
         }
+        event.finish(proxyConnection);
 
         proxyConnection.getLoginHelloPacket().name = proxyConnection.getGameProfile().getName();
         proxyConnection.getLoginHelloPacket().uuid = proxyConnection.getGameProfile().getId();
@@ -85,37 +91,37 @@ public class ExternalInterface {
     public static void joinServer(final String serverIdHash, final ProxyConnection proxyConnection) throws InterruptedException, ExecutionException {
         Logger.u_info("auth", proxyConnection, "Trying to join online mode server");
         if (proxyConnection.getAccount() instanceof MicrosoftAccount microsoftAccount) {
+            EventLoopMonitor.reportBlocking("session server join");
+            LoginStageEvent event = new LoginStageEvent("join server");
+            event.begin();
             try {
-                AuthLibServices.SESSION_SERVICE.joinServer(microsoftAccount.getGameProfile(), microsoftAccount.getMcProfile().getMcToken().getAccessToken(), serverIdHash);
+                AuthLibServices.getSessionService().joinServer(microsoftAccount.getGameProfile(), microsoftAccount.getMcProfile().getMcToken().getAccessToken(), serverIdHash);
             } catch (Throwable e) {
                 proxyConnection.kickClient("Failed to authenticate with Mojang servers! Please try again in a couple of seconds.");
+            } finally {
+                event.finish(proxyConnection);
             }
         } else {
             proxyConnection.kickClient("This server is in online mode and requires a valid authentication mode.");
         }
     }
 
-    public static void signNonce(final byte[] nonce, final C2SLoginKeyPacket packet, final ProxyConnection proxyConnection) throws InterruptedException, ExecutionException, SignatureException {
+    //runs on the crypto worker, returns false without a chat session so the caller kicks on the event loop
+    public static boolean signNonce(final byte[] nonce, final C2SLoginKeyPacket packet, final ProxyConnection proxyConnection) throws InterruptedException, ExecutionException, SignatureException {
         Logger.u_info("auth", proxyConnection, "Requesting nonce signature");
         DualConnection dualConnection = proxyConnection.dualConnection;
         if (dualConnection.getChatSession1_19_3() != null) {
+            LoginStageEvent event = new LoginStageEvent("sign nonce");
+            event.begin();
             final long salt = ThreadLocalRandom.current().nextLong();
             packet.signature = dualConnection.getChatSession1_19_3().sign(updater -> {
                 updater.accept(nonce);
-                updater.accept(toByteArray(salt));
+                updater.acceptLong(salt);
             });
             packet.salt = salt;
-        } else {
-            proxyConnection.kickClient("This server requires a signed nonce. Please enable chat signing in the config and select a valid authentication mode.");
-        }
-    }
-
-    private static byte[] toByteArray(long value) {
-        byte[] result = new byte[8];
-        for (int i = 7; i >= 0; i--) {
-            result[i] = (byte) (value & 0xffL);
-            value >>= 8;
+            event.finish(proxyConnection);
+            return true;
         }
-        return result;
+        return false;
     }
 }
@@ -0,0 +1,136 @@
+/*
+ * This file is part of faker - https://github.com/o1seth/faker
+ * Copyright (C) 2024 o1seth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.java.faker.proxy.client2proxy;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelOption;
+import io.netty.util.AttributeKey;
+import io.netty.util.concurrent.DefaultThreadFactory;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+//First step of every accepted client channel, before the pipeline, ProxyConnection or WinRedirect lookups exist.
+//Each source address gets a token bucket and the number of connections still in handshake is capped,
+//so a device stuck in a reconnect or ping loop is dropped before it costs the event loops anything.
+//The intent is not known yet at this point, so the limits leave room for a multiplayer screen pinging a long
+//server list at once through the redirect and only stop sources that keep it up.
+public class AdmissionControl {
+    private static final int BURST = Integer.getInteger("faker.admission.burst", 128);
+    private static final double PER_SECOND = Integer.getInteger("faker.admission.perSecond", 32);
+    private static final int MAX_HANDSHAKING = Integer.getInteger("faker.admission.maxHandshaking", 512);
+    private static final long SWEEP_MILLIS = 10_000;
+    private static final AttributeKey<Boolean> HANDSHAKING = AttributeKey.valueOf("admission-handshaking");
+
+    private static final ConcurrentHashMap<InetAddress, Bucket> BUCKETS = new ConcurrentHashMap<>();
+    private static final AtomicInteger handshaking = new AtomicInteger();
+    private static final AtomicLong rateLimited = new AtomicLong();
+    private static final AtomicLong overCapacity = new AtomicLong();
+
+    //sources that stopped connecting are forgotten in the background, the accept path never walks the map
+    private static final ScheduledExecutorService SWEEPER = Executors.newSingleThreadScheduledExecutor(new DefaultThreadFactory("admission-sweep", true));
+
+    static {
+        SWEEPER.scheduleWithFixedDelay(AdmissionControl::sweep, SWEEP_MILLIS, SWEEP_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public static boolean admit(Channel channel) {
+        if (channel.remoteAddress() instanceof InetSocketAddress remote) {
+            long now = System.nanoTime();
+            if (!BUCKETS.computeIfAbsent(remote.getAddress(), address -> new Bucket(now)).tryTake(now)) {
+                rateLimited.incrementAndGet();
+                reject(channel);
+                return false;
+            }
+        }
+        if (handshaking.incrementAndGet() > MAX_HANDSHAKING) {
+            handshaking.decrementAndGet();
+            overCapacity.incrementAndGet();
+            reject(channel);
+            return false;
+        }
+        channel.attr(HANDSHAKING).set(Boolean.TRUE);
+        channel.closeFuture().addListener(f -> handshakeDone(channel));
+        return true;
+    }
+
+    private static void sweep() {
+        long now = System.nanoTime();
+        BUCKETS.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    public static void handshakeDone(Channel channel) {
+        if (channel.attr(HANDSHAKING).getAndSet(null) != null) {
+            handshaking.decrementAndGet();
+        }
+    }
+
+    private static void reject(Channel channel) {
+        //reset instead of a graceful close, nothing was sent and there is no reason to keep TIME_WAIT around
+        channel.config().setOption(ChannelOption.SO_LINGER, 0);
+        channel.close();
+    }
+
+    public static int getHandshaking() {
+        return handshaking.get();
+    }
+
+    public static long getRateLimited() {
+        return rateLimited.get();
+    }
+
+    public static long getOverCapacity() {
+        return overCapacity.get();
+    }
+
+    private static final class Bucket {
+        private double tokens = BURST;
+        private long lastRefill;
+
+        private Bucket(long now) {
+            this.lastRefill = now;
+        }
+
+        synchronized boolean tryTake(long now) {
+            this.refill(now);
+            if (this.tokens < 1) {
+                return false;
+            }
+            this.tokens--;
+            return true;
+        }
+
+        synchronized boolean isFull(long now) {
+            this.refill(now);
+            return this.tokens >= BURST;
+        }
+
+        private void refill(long now) {
+            double elapsed = (now - this.lastRefill) / (double) TimeUnit.SECONDS.toNanos(1);
+            this.tokens = Math.min(BURST, this.tokens + elapsed * PER_SECOND);
+            this.lastRefill = now;
+        }
+    }
+}
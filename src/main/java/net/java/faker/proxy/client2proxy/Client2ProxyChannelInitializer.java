@@ -21,6 +21,11 @@ package net.java.faker.proxy.client2proxy;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandler;
 import net.java.faker.proxy.PacketRegistry;
+import net.java.faker.proxy.metrics.ConnectionMetrics;
+import net.java.faker.proxy.metrics.Direction;
+import net.java.faker.proxy.metrics.EventLoopMonitor;
+import net.java.faker.proxy.metrics.TrafficMetricsHandler;
+import net.java.faker.proxy.socket.SocketProfile;
 import net.raphimc.netminecraft.constants.MCPipeline;
 import net.raphimc.netminecraft.netty.connection.MinecraftChannelInitializer;
 
@@ -35,8 +40,15 @@ public class Client2ProxyChannelInitializer extends MinecraftChannelInitializer
 
     @Override
     protected void initChannel(Channel channel) {
+        if (!AdmissionControl.admit(channel)) {
+            return;
+        }
         channel.pipeline().addLast(HandshakeCodec.HANDSHAKE_HANDLER_NAME, new HandshakeCodec());
         super.initChannel(channel);
+        TrafficMetricsHandler.install(channel, new ConnectionMetrics(String.valueOf(channel.remoteAddress())), Direction.CLIENT_TO_PROXY, Direction.PROXY_TO_CLIENT);
+        EventLoopMonitor.watch(channel);
+        SocketProfile.CLIENT.apply(channel);
+        OutboundScheduler.install(channel);
 
         channel.attr(MCPipeline.PACKET_REGISTRY_ATTRIBUTE_KEY).set(new PacketRegistry(false, -1));
     }
@@ -31,11 +31,18 @@ import net.java.faker.auth.Account;
 import net.java.faker.proxy.event.ConnectEvent;
 import net.java.faker.proxy.event.DisconnectEvent;
 import net.java.faker.proxy.event.LoginEvent;
+import net.java.faker.proxy.jfr.PacketHandleEvent;
+import net.java.faker.proxy.metrics.EventLoopMonitor;
+import net.java.faker.proxy.packet.C2SAbstractPong;
 import net.java.faker.proxy.packethandler.*;
 import net.java.faker.proxy.proxy2server.Proxy2ServerChannelInitializer;
 import net.java.faker.proxy.proxy2server.Proxy2ServerHandler;
 import net.java.faker.proxy.session.DualConnection;
+import net.java.faker.proxy.session.OutboundConnections;
 import net.java.faker.proxy.session.ProxyConnection;
+import net.java.faker.proxy.session.SessionKey;
+import net.java.faker.proxy.session.SessionRegistry;
+import net.java.faker.proxy.session.StageDeadlines;
 import net.java.faker.proxy.util.*;
 import net.java.faker.util.logging.Logger;
 import net.raphimc.netminecraft.constants.*;
@@ -59,22 +66,24 @@ public class Client2ProxyHandler extends SimpleChannelInboundHandler<Packet> {
     public void channelActive(ChannelHandlerContext ctx) throws Exception {
         super.channelActive(ctx);
         if (ctx.channel().localAddress() instanceof InetSocketAddress isa) {
-            if (Proxy.connectedAddresses.contains(isa)) {
+            if (OutboundConnections.contains(isa)) {
                 Logger.u_info("disconnect", "Loopback connection closed " + isa);
                 ctx.close();
                 return;
             }
         }
 
-        InetSocketAddress remote = (InetSocketAddress) ctx.channel().remoteAddress();
         InetSocketAddress[] addresses = new InetSocketAddress[2];
-        if (!WinRedirect.redirectGetRealAddresses(Proxy.forward_redirect, remote.getAddress().getHostAddress(), remote.getPort(), addresses)) {
-            WinRedirect.redirectGetRealAddresses(Proxy.redirect, remote.getAddress().getHostAddress(), remote.getPort(), addresses);
+        if (WinRedirect.isSupported() && ctx.channel().remoteAddress() instanceof InetSocketAddress remote) {
+            if (!WinRedirect.redirectGetRealAddresses(Proxy.forward_redirect, remote.getAddress().getHostAddress(), remote.getPort(), addresses)) {
+                WinRedirect.redirectGetRealAddresses(Proxy.redirect, remote.getAddress().getHostAddress(), remote.getPort(), addresses);
+            }
         }
 
         final Supplier<ChannelHandler> handlerSupplier = Proxy2ServerHandler::new;
         this.proxyConnection = new ProxyConnection(handlerSupplier, Proxy2ServerChannelInitializer::new, ctx.channel(), addresses[0], addresses[1]);
         ctx.channel().attr(CLIENT_2_PROXY_ATTRIBUTE_KEY).set(this);
+        this.proxyConnection.enterStage(StageDeadlines.Stage.HANDSHAKE);
 
         Proxy.getConnectedClients().add(ctx.channel());
         Proxy.event(new ConnectEvent(this.proxyConnection));
@@ -89,8 +98,7 @@ public class Client2ProxyHandler extends SimpleChannelInboundHandler<Packet> {
         if (dualConnection != null) {
 
             if (dualConnection.isClosed()) {
-                Proxy.dualConnection = null;
-                Logger.info("Dual connection closed");
+                SessionRegistry.remove(dualConnection);
                 try {
                     this.proxyConnection.getChannel().close();
                 } catch (Throwable ignored) {
@@ -108,6 +116,10 @@ public class Client2ProxyHandler extends SimpleChannelInboundHandler<Packet> {
         Proxy.event(new DisconnectEvent(this.proxyConnection));
     }
 
+    public ProxyConnection getProxyConnection() {
+        return this.proxyConnection;
+    }
+
     static IntConsumer addSkipPort = port -> {
         if (Proxy.redirect != 0) {
             WinRedirect.redirectAddSkipPort(Proxy.redirect, port);
@@ -115,24 +127,23 @@ public class Client2ProxyHandler extends SimpleChannelInboundHandler<Packet> {
         }
 
     };
-    static ChannelFutureListener removeSkipPort = f -> {
+    static IntConsumer removeSkipPort = port -> {
         if (Proxy.redirect != 0) {
-            InetSocketAddress localAddress = (InetSocketAddress) f.channel().localAddress();
-            int port = localAddress.getPort();
             WinRedirect.redirectRemoveSkipPort(Proxy.redirect, port);
             Logger.info("Skip port removed " + port);
         }
     };
 
     private boolean shouldEnablePortForward(C2SHandshakingClientIntentionPacket handshakingPacket) {
-        if (Proxy.dualConnection != null) {
-            if (Proxy.dualConnection.isBothConnectionCreated()) {
-                return true;
-            }
-            ProxyConnection mainConnection = Proxy.dualConnection.getMainConnection();
-            if (mainConnection.getVersion() != handshakingPacket.protocolVersion) {
-                return true;
-            }
+        //a third client for a target that already has a full session is forwarded as before,
+        //a second session with the same account would get the first one kicked by the server
+        SessionKey key = this.getSessionKey(handshakingPacket);
+        if (SessionRegistry.hasPairedSession(key)) {
+            return true;
+        }
+        DualConnection pending = SessionRegistry.getPending(key);
+        if (pending != null && pending.getMainConnection().getVersion() != handshakingPacket.protocolVersion) {
+            return true;
         }
         InetSocketAddress targetHandshake = Proxy.getTargetHandshakeAddress();
         if (targetHandshake != null) {
@@ -150,18 +161,21 @@ public class Client2ProxyHandler extends SimpleChannelInboundHandler<Packet> {
         return false;
     }
 
+    //the server the client asked for, direct clients ask for the proxy itself and go to the configured target
+    private SessionKey getSessionKey(C2SHandshakingClientIntentionPacket handshakingPacket) {
+        if (!this.proxyConnection.isRedirected() && Proxy.getTargetAddress() != null) {
+            return SessionKey.of(Proxy.getAccount(), Proxy.getTargetAddress());
+        }
+        return SessionKey.of(Proxy.getAccount(), handshakingPacket.address, handshakingPacket.port);
+    }
+
     public void onFailedHandshake(ChannelHandlerContext ctx, Throwable t) {
         if (this.proxyConnection.isRedirected()) {
             Logger.u_info("handshake", "Failed handshake. Set port-forward. " + t.getClass() + " " + t.getMessage());
             InetSocketAddress connectAddress = this.proxyConnection.getRealDstAddress();
-            Proxy.connectedAddresses.add(connectAddress);
-            proxyConnection.connectToServer(connectAddress, addSkipPort).addListeners(removeSkipPort, (ThrowingChannelFutureListener) f -> {
-                if (!f.isSuccess()) {
-                    if (f.channel().remoteAddress() instanceof InetSocketAddress isa) {
-                        Proxy.connectedAddresses.remove(isa);
-                    }
-                }
-            }).syncUninterruptibly();
+            OutboundConnections.acquire(connectAddress);
+            EventLoopMonitor.reportBlocking("connect to " + connectAddress);
+            proxyConnection.connectToServer(connectAddress, addSkipPort, removeSkipPort).addListener(OutboundConnections.releaseOnClose(connectAddress)).syncUninterruptibly();
             proxyConnection.setForwardMode();
 
         } else {
@@ -203,14 +217,9 @@ public class Client2ProxyHandler extends SimpleChannelInboundHandler<Packet> {
                 return true;
             }
             Logger.u_info("port forward connect", this.proxyConnection, "[" + handshakingPacket.protocolVersion + "] Connecting to " + connectAddress);
-            Proxy.connectedAddresses.add(connectAddress);
-            proxyConnection.connectToServer(connectAddress, addSkipPort).addListeners(removeSkipPort, (ThrowingChannelFutureListener) f -> {
-                if (!f.isSuccess()) {
-                    if (f.channel().remoteAddress() instanceof InetSocketAddress isa) {
-                        Proxy.connectedAddresses.remove(isa);
-                    }
-                }
-            }).syncUninterruptibly();
+            OutboundConnections.acquire(connectAddress);
+            EventLoopMonitor.reportBlocking("connect to " + connectAddress);
+            proxyConnection.connectToServer(connectAddress, addSkipPort, removeSkipPort).addListener(OutboundConnections.releaseOnClose(connectAddress)).syncUninterruptibly();
 
             proxyConnection.getChannel().writeAndFlush(handshake).syncUninterruptibly();
             proxyConnection.setForwardMode();
@@ -230,12 +239,25 @@ public class Client2ProxyHandler extends SimpleChannelInboundHandler<Packet> {
 
     @Override
     protected void channelRead0(ChannelHandlerContext ctx, Packet packet) throws Exception {
+        PacketHandleEvent event = new PacketHandleEvent();
+        event.begin();
+        try {
+            this.handlePacket(packet);
+        } finally {
+            event.finish("c2p", packet, this.proxyConnection);
+        }
+    }
+
+    private void handlePacket(Packet packet) throws Exception {
         if (this.proxyConnection.isClosed()) {
             return;
         }
         if (this.proxyConnection.isForwardMode()) {
             throw new IllegalStateException("Unexpected packet in forward mode " + PacketUtils.toString(packet));
         }
+        if (packet instanceof C2SAbstractPong pong) {
+            this.proxyConnection.getMetrics().getRtt().onClientPong(pong.getId());
+        }
         if (!(packet instanceof UnknownPacket)) {
             if (!proxyConnection.preReceivePacket(packet)) {
                 return;
@@ -258,7 +280,7 @@ public class Client2ProxyHandler extends SimpleChannelInboundHandler<Packet> {
                 return;
             }
         }
-        this.proxyConnection.sendToServer(packet, listeners);
+        this.proxyConnection.sendToServerOrdered(packet, listeners);
     }
 
     @Override
@@ -269,17 +291,9 @@ public class Client2ProxyHandler extends SimpleChannelInboundHandler<Packet> {
     private void handleHandshake(final C2SHandshakingClientIntentionPacket packet) {
 
         if (packet.intendedState == IntendedState.LOGIN) {
-            if (Proxy.dualConnection == null) {
-                Proxy.dualConnection = new DualConnection(proxyConnection);
-                this.proxyConnection.setController(true);
-            } else {
-                this.proxyConnection.setController(false);
-                this.proxyConnection.setChannel(Proxy.dualConnection.getMainConnection());
-                Proxy.dualConnection.setSideConnection(this.proxyConnection);
-                Logger.info("Dual connection fully initialized");
-            }
-            this.proxyConnection.dualConnection = Proxy.dualConnection;
-            Proxy.event(new LoginEvent(this.proxyConnection, Proxy.dualConnection));
+            DualConnection dualConnection = SessionRegistry.join(this.getSessionKey(packet), this.proxyConnection, packet.protocolVersion);
+            this.proxyConnection.dualConnection = dualConnection;
+            Proxy.event(new LoginEvent(this.proxyConnection, dualConnection));
         }
 
 
@@ -305,10 +319,11 @@ public class Client2ProxyHandler extends SimpleChannelInboundHandler<Packet> {
                     handshakeAddress = Proxy.getTargetHandshakeAddress();
                 }
             } else {
-                if (Proxy.dualConnection != null) {
-                    connectAddress = (InetSocketAddress) Proxy.dualConnection.getMainConnection().getChannel().remoteAddress();
+                DualConnection dualConnection = this.proxyConnection.dualConnection;
+                if (dualConnection != null && dualConnection.getMainConnection() != this.proxyConnection) {
+                    connectAddress = (InetSocketAddress) dualConnection.getMainConnection().getChannel().remoteAddress();
                     //handshake with address will not be sent to server
-                    handshakeAddress = Proxy.dualConnection.getMainConnection().getClientHandshakeAddress();
+                    handshakeAddress = dualConnection.getMainConnection().getClientHandshakeAddress();
                 } else {
                     //connect to what?
                     connectAddress = null;
@@ -362,6 +377,10 @@ public class Client2ProxyHandler extends SimpleChannelInboundHandler<Packet> {
             Proxy.suspendRedirect();
             return;
         }
+        if (connectAddress == null) {
+            //direct connection without a configured server and no session to follow
+            this.proxyConnection.kickClient("No server address set in the proxy");
+        }
         if (connectAddress.equals(handshakeAddress)) {
             Logger.u_info("connect", this.proxyConnection, "[" + version + "] Connecting to " + connectAddress);
         } else {
@@ -380,8 +399,8 @@ public class Client2ProxyHandler extends SimpleChannelInboundHandler<Packet> {
             return;
         }
 
-        Proxy.connectedAddresses.add(connectAddress);
-        this.proxyConnection.connectToServer(connectAddress, addSkipPort).addListeners(removeSkipPort, (ThrowingChannelFutureListener) f -> {
+        OutboundConnections.acquire(connectAddress);
+        this.proxyConnection.connectToServer(connectAddress, addSkipPort, removeSkipPort).addListeners(OutboundConnections.releaseOnClose(connectAddress), (ThrowingChannelFutureListener) f -> {
             if (f.isSuccess()) {
                 f.channel().eventLoop().submit(() -> { // Reschedule so the packets get sent after the channel is fully initialized and active
 
@@ -401,9 +420,6 @@ public class Client2ProxyHandler extends SimpleChannelInboundHandler<Packet> {
             }
         }, (ThrowingChannelFutureListener) f -> {
             if (!f.isSuccess()) {
-                if (f.channel().remoteAddress() instanceof InetSocketAddress isa) {
-                    Proxy.connectedAddresses.remove(isa);
-                }
                 if (f.cause() instanceof ConnectException || f.cause() instanceof UnresolvedAddressException) {
                     this.proxyConnection.kickClient("Could not connect to the backend server!");
                 } else {
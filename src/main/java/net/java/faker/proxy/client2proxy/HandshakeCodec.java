@@ -77,6 +77,7 @@ public class HandshakeCodec extends ByteToMessageCodec<ByteBuf> {
                             in.skipBytes(minimumRead);
                             handshake = false;
                             ctx.channel().pipeline().remove(HandshakeCodec.HANDSHAKE_HANDLER_NAME);
+                            AdmissionControl.handshakeDone(ctx.channel());
                         }
                     }
                 } else if (reader.getResult() == VarIntByteDecoder.DecodeResult.TOO_BIG) {
@@ -89,6 +90,7 @@ public class HandshakeCodec extends ByteToMessageCodec<ByteBuf> {
                 ctx.channel().attr(Client2ProxyHandler.CLIENT_2_PROXY_ATTRIBUTE_KEY).get().onFailedHandshake(ctx, e);
                 handshake = false;
                 ctx.channel().pipeline().remove(HandshakeCodec.HANDSHAKE_HANDLER_NAME);
+                AdmissionControl.handshakeDone(ctx.channel());
             }
 
         } else {
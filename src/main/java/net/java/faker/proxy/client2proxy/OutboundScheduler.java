@@ -0,0 +1,223 @@
+/*
+ * This file is part of faker - https://github.com/o1seth/faker
+ * Copyright (C) 2024 o1seth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.java.faker.proxy.client2proxy;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.util.ReferenceCountUtil;
+import net.java.faker.proxy.session.ProxyConnection;
+import net.raphimc.netminecraft.constants.ConnectionState;
+import net.raphimc.netminecraft.constants.MCPackets;
+import net.raphimc.netminecraft.constants.MCPipeline;
+
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+//Sits between the packet codec and compression of every client channel, but only acts on the follower of a dual
+//session while its channel is not writable. The controller's packets always pass straight through, nothing of the
+//player's own view is reordered or shed. Whatever is queued when the roles swap still drains in order.
+//Queued packets leave by class, but only world data may be overtaken: everything unclassified keeps its place
+//relative to every other packet, so protocol ordering (respawn, configuration, inventory...) is untouched.
+//Player movement and entity packets keep their order between each other too (a teleport never passes the
+//passenger or entity update before it), together they overtake queued world data.
+//Pings stay unclassified so round trip probes measure the queue like everything else.
+//Cosmetic packets are dropped instead of queued once the backlog is too large.
+public class OutboundScheduler extends ChannelDuplexHandler {
+    public static final String HANDLER_NAME = "outbound-scheduler";
+    private static final int SHED_BYTES = Integer.getInteger("faker.scheduler.shedBytes", 256 * 1024);
+    private static final AtomicLong shedPackets = new AtomicLong();
+
+    private static final int HIGH = 0;
+    private static final int ENTITY = 1;
+    private static final int WORLD = 2;
+    private static final int OTHER = 3;
+    private static final int COSMETIC = 4;
+
+    private static final String[][] CLASSES = {
+            {"S2C_KEEP_ALIVE", "S2C_PLAYER_POSITION", "S2C_PLAYER_ROTATION"},
+            {"S2C_ADD_ENTITY", "S2C_ADD_PLAYER", "S2C_ADD_MOB", "S2C_REMOVE_ENTITIES", "S2C_REMOVE_ENTITY", "S2C_MOVE_ENTITY_POS", "S2C_MOVE_ENTITY_POS_ROT",
+                    "S2C_MOVE_ENTITY_ROT", "S2C_ROTATE_HEAD", "S2C_TELEPORT_ENTITY", "S2C_ENTITY_POSITION_SYNC", "S2C_SET_ENTITY_MOTION", "S2C_SET_ENTITY_DATA",
+                    "S2C_SET_PASSENGERS", "S2C_SET_ENTITY_LINK", "S2C_SET_EQUIPMENT", "S2C_UPDATE_ATTRIBUTES", "S2C_ANIMATE", "S2C_ENTITY_EVENT"},
+            {"S2C_LEVEL_CHUNK_WITH_LIGHT", "S2C_LEVEL_CHUNK", "S2C_MAP_BULK_CHUNK", "S2C_LIGHT_UPDATE", "S2C_FORGET_LEVEL_CHUNK", "S2C_CHUNKS_BIOMES",
+                    "S2C_CHUNK_BATCH_START", "S2C_CHUNK_BATCH_FINISHED", "S2C_BLOCK_UPDATE", "S2C_SECTION_BLOCKS_UPDATE", "S2C_BLOCK_ENTITY_DATA",
+                    "S2C_BLOCK_EVENT", "S2C_BLOCK_DESTRUCTION"},
+            {},
+            {"S2C_LEVEL_PARTICLES", "S2C_SOUND", "S2C_SOUND_ENTITY", "S2C_CUSTOM_SOUND", "S2C_NAMED_SOUND", "S2C_LEVEL_EVENT"}
+    };
+    private static final Map<Integer, byte[]> CLASS_BY_VERSION = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    private final ArrayDeque<Entry>[] lanes = new ArrayDeque[]{new ArrayDeque<>(), new ArrayDeque<>(), new ArrayDeque<>(), new ArrayDeque<>()};
+    private long sequence;
+    private int queued;
+    private long queuedBytes;
+
+    public static void install(Channel channel) {
+        channel.pipeline().addBefore(MCPipeline.PACKET_CODEC_HANDLER_NAME, HANDLER_NAME, new OutboundScheduler());
+    }
+
+    public static long getShedPackets() {
+        return shedPackets.get();
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        if (this.queued == 0 && (ctx.channel().isWritable() || !isFollower(ctx.channel())) || !(msg instanceof ByteBuf buf)) {
+            ctx.write(msg, promise);
+            return;
+        }
+        int packetClass = this.classify(ctx.channel(), buf);
+        if (packetClass == COSMETIC) {
+            if (this.queuedBytes > SHED_BYTES && isFollower(ctx.channel())) {
+                shedPackets.incrementAndGet();
+                ReferenceCountUtil.release(buf);
+                promise.trySuccess();
+                return;
+            }
+            packetClass = WORLD;
+        }
+        this.lanes[packetClass].add(new Entry(this.sequence++, buf, promise));
+        this.queued++;
+        this.queuedBytes += buf.readableBytes();
+    }
+
+    @Override
+    public void flush(ChannelHandlerContext ctx) throws Exception {
+        this.drain(ctx);
+        ctx.flush();
+    }
+
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+        if (ctx.channel().isWritable() && this.queued != 0) {
+            this.drain(ctx);
+            ctx.flush();
+        }
+        super.channelWritabilityChanged(ctx);
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) {
+        for (ArrayDeque<Entry> lane : this.lanes) {
+            Entry entry;
+            while ((entry = lane.poll()) != null) {
+                ReferenceCountUtil.release(entry.buf);
+                entry.promise.tryFailure(new ClosedChannelException());
+            }
+        }
+        this.queued = 0;
+        this.queuedBytes = 0;
+    }
+
+    private void drain(ChannelHandlerContext ctx) {
+        while (this.queued != 0 && ctx.channel().isWritable()) {
+            Entry entry = this.lanes[this.nextLane()].poll();
+            this.queued--;
+            this.queuedBytes -= entry.buf.readableBytes();
+            ctx.write(entry.buf, entry.promise);
+        }
+    }
+
+    //the oldest queued packet is always eligible, so this never stalls
+    private int nextLane() {
+        Entry other = this.lanes[OTHER].peek();
+        long barrier = other != null ? other.sequence : Long.MAX_VALUE;
+        //high and entity leave in arrival order, whichever came first
+        Entry high = this.lanes[HIGH].peek();
+        Entry entity = this.lanes[ENTITY].peek();
+        Entry first = high == null || entity != null && entity.sequence < high.sequence ? entity : high;
+        if (first != null && first.sequence < barrier) {
+            return first == high ? HIGH : ENTITY;
+        }
+        Entry world = this.lanes[WORLD].peek();
+        if (world != null && world.sequence < barrier) {
+            return WORLD;
+        }
+        return OTHER;
+    }
+
+    private static boolean isFollower(Channel channel) {
+        ProxyConnection proxyConnection = ProxyConnection.fromChannel(channel);
+        return proxyConnection != null && proxyConnection.dualConnection != null && !proxyConnection.isController();
+    }
+
+    private int classify(Channel channel, ByteBuf buf) {
+        ProxyConnection proxyConnection = ProxyConnection.fromChannel(channel);
+        if (proxyConnection == null || proxyConnection.getC2pConnectionState() != ConnectionState.PLAY || !buf.isReadable()) {
+            return OTHER;
+        }
+        int packetId = readVarInt(buf, buf.readerIndex());
+        byte[] classes = CLASS_BY_VERSION.computeIfAbsent(proxyConnection.getVersion(), OutboundScheduler::buildClasses);
+        return packetId >= 0 && packetId < classes.length ? classes[packetId] : OTHER;
+    }
+
+    private static byte[] buildClasses(int version) {
+        byte[] classes = new byte[256];
+        Arrays.fill(classes, (byte) OTHER);
+        for (int packetClass = 0; packetClass < CLASSES.length; packetClass++) {
+            for (String name : CLASSES[packetClass]) {
+                int id = packetId(name, version);
+                if (id >= 0 && id < classes.length) {
+                    classes[id] = (byte) packetClass;
+                }
+            }
+        }
+        return classes;
+    }
+
+    //looked up by name, packets missing from this netminecraft build or this protocol version stay unclassified
+    private static int packetId(String name, int version) {
+        try {
+            return ((MCPackets) MCPackets.class.getField(name).get(null)).getId(version);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return -1;
+        }
+    }
+
+    private static int readVarInt(ByteBuf buf, int index) {
+        int value = 0;
+        for (int i = 0; i < 5 && index + i < buf.writerIndex(); i++) {
+            byte b = buf.getByte(index + i);
+            value |= (b & 0x7F) << (i * 7);
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        return -1;
+    }
+
+    private static final class Entry {
+        private final long sequence;
+        private final ByteBuf buf;
+        private final ChannelPromise promise;
+
+        private Entry(long sequence, ByteBuf buf, ChannelPromise promise) {
+            this.sequence = sequence;
+            this.buf = buf;
+            this.promise = promise;
+        }
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * This file is part of faker - https://github.com/o1seth/faker
+ * Copyright (C) 2024 o1seth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.java.faker.proxy.dhcp;
+
+import net.java.faker.util.logging.Logger;
+import net.java.faker.util.network.NetworkUtil;
+import org.apache.directory.server.dhcp.messages.HardwareAddress;
+import org.apache.directory.server.dhcp.service.store.Lease;
+
+import java.io.*;
+import java.net.Inet4Address;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+public class AddressPool {
+    private static final int MAGIC = 0x46444c53;
+    private static final int VERSION = 1;
+
+    private final int start;
+    private final int size;
+    private final long[] used;
+    private final Map<HardwareAddress, Lease> leases = new HashMap<>();
+    private final PriorityQueue<Expiry> expiries = new PriorityQueue<>();
+    private int cursor;
+    private int free;
+
+    public AddressPool(int start, int end) {
+        this.start = start;
+        this.size = end - start + 1;
+        if (this.size <= 0) {
+            throw new IllegalArgumentException("Empty address range");
+        }
+        this.used = new long[(this.size + 63) >>> 6];
+        this.free = this.size;
+        // bits past the end of the range are never free
+        int tail = this.size & 63;
+        if (tail != 0) {
+            this.used[this.used.length - 1] = -1L << tail;
+        }
+    }
+
+    public synchronized Lease get(HardwareAddress hardwareAddress) {
+        return this.leases.get(hardwareAddress);
+    }
+
+    public synchronized int size() {
+        return this.leases.size();
+    }
+
+    public synchronized Lease allocate(HardwareAddress hardwareAddress, long expires) {
+        int address = this.nextFree();
+        if (address == 0) {
+            address = this.reclaimExpired();
+            if (address == 0) {
+                return null;
+            }
+        }
+        Lease lease = new Lease(hardwareAddress, NetworkUtil.fromIntAddress(address));
+        this.put(lease, expires);
+        return lease;
+    }
+
+    public synchronized void renew(Lease lease, long expires) {
+        lease.setExpires(expires);
+        this.expiries.add(new Expiry(lease, expires));
+        // every renewal leaves the previous entry behind, rebuild before they pile up
+        if (this.expiries.size() > 2 * this.leases.size()) {
+            this.expiries.removeIf(expiry -> !expiry.isCurrent(this.leases));
+        }
+    }
+
+    private void put(Lease lease, long expires) {
+        lease.setExpires(expires);
+        this.leases.put(lease.getHardwareAddress(), lease);
+        this.expiries.add(new Expiry(lease, expires));
+    }
+
+    private int nextFree() {
+        if (this.free == 0) {
+            return 0;
+        }
+        int words = this.used.length;
+        int word = this.cursor >>> 6;
+        for (int i = 0; i <= words; i++) {
+            long bits = ~this.used[word];
+            if (i == 0) {
+                // skip offsets before the cursor in the first word
+                bits &= -1L << (this.cursor & 63);
+            }
+            while (bits != 0) {
+                int bit = Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                int offset = (word << 6) | bit;
+                this.mark(offset);
+                this.cursor = offset + 1 >= this.size ? 0 : offset + 1;
+                Inet4Address address = NetworkUtil.fromIntAddress(this.start + offset);
+                if (NetworkUtil.localIpExists(address.getHostAddress())) {
+                    // keep local addresses reserved for the lifetime of the pool
+                    continue;
+                }
+                return this.start + offset;
+            }
+            word = word + 1 == words ? 0 : word + 1;
+        }
+        return 0;
+    }
+
+    private int reclaimExpired() {
+        long now = System.currentTimeMillis() / 1000;
+        while (!this.expiries.isEmpty()) {
+            Expiry head = this.expiries.peek();
+            if (!head.isCurrent(this.leases)) {
+                this.expiries.poll();
+                continue;
+            }
+            if (head.expires >= now) {
+                return 0;
+            }
+            this.expiries.poll();
+            this.leases.remove(head.lease.getHardwareAddress());
+            Logger.info("<DHCP> reclaim lease " + head.lease.getHardwareAddress() + " " + head.lease.getClientAddress());
+            int address = NetworkUtil.getIntAddress((Inet4Address) head.lease.getClientAddress());
+            if (NetworkUtil.localIpExists(head.lease.getClientAddress().getHostAddress())) {
+                continue;
+            }
+            return address;
+        }
+        return 0;
+    }
+
+    private boolean mark(int offset) {
+        long mask = 1L << (offset & 63);
+        int word = offset >>> 6;
+        if ((this.used[word] & mask) != 0) {
+            return false;
+        }
+        this.used[word] |= mask;
+        this.free--;
+        return true;
+    }
+
+    private boolean inRange(int address) {
+        int offset = address - this.start;
+        return offset >= 0 && offset < this.size;
+    }
+
+    public synchronized void load(File file) {
+        if (!file.isFile()) {
+            return;
+        }
+        long now = System.currentTimeMillis() / 1000;
+        int restored = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readUnsignedByte() != VERSION) {
+                Logger.warn("<DHCP> unknown lease file format " + file);
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                short type = in.readShort();
+                int length = in.readUnsignedByte();
+                byte[] mac = new byte[length];
+                in.readFully(mac);
+                int address = in.readInt();
+                long expires = in.readLong();
+                if (expires < now || !this.inRange(address)) {
+                    continue;
+                }
+                HardwareAddress hardwareAddress = new HardwareAddress(type, (short) length, mac);
+                if (this.leases.containsKey(hardwareAddress) || !this.mark(address - this.start)) {
+                    continue;
+                }
+                this.put(new Lease(hardwareAddress, NetworkUtil.fromIntAddress(address)), expires);
+                restored++;
+            }
+        } catch (Exception e) {
+            Logger.warn("<DHCP> failed to load leases from " + file + ": " + e);
+        }
+        if (restored > 0) {
+            Logger.info("<DHCP> restored " + restored + " leases");
+        }
+    }
+
+    // the file content for the current leases, called on the save thread
+    public synchronized byte[] serialize() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(9 + this.leases.size() * 24);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeInt(this.leases.size());
+            for (Lease lease : this.leases.values()) {
+                HardwareAddress hardwareAddress = lease.getHardwareAddress();
+                byte[] mac = hardwareAddress.getAddress();
+                out.writeShort(hardwareAddress.getType());
+                out.writeByte(mac.length);
+                out.write(mac);
+                out.writeInt(NetworkUtil.getIntAddress((Inet4Address) lease.getClientAddress()));
+                out.writeLong(lease.getExpires());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static class Expiry implements Comparable<Expiry> {
+        private final Lease lease;
+        private final long expires;
+
+        private Expiry(Lease lease, long expires) {
+            this.lease = lease;
+            this.expires = expires;
+        }
+
+        // renewals push a new entry, older ones are dropped at the head or when the queue is rebuilt
+        private boolean isCurrent(Map<HardwareAddress, Lease> leases) {
+            return leases.get(this.lease.getHardwareAddress()) == this.lease && this.lease.getExpires() == this.expires;
+        }
+
+        @Override
+        public int compareTo(Expiry o) {
+            return Long.compare(this.expires, o.expires);
+        }
+    }
+}
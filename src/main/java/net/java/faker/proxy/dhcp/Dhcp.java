@@ -18,13 +18,15 @@
 
 package net.java.faker.proxy.dhcp;
 
+import net.java.faker.Proxy;
 import net.java.faker.proxy.util.ExceptionUtil;
+import net.java.faker.save.WriteBehindFile;
 import net.java.faker.util.logging.Logger;
 import net.java.faker.util.network.NetworkUtil;
 import org.apache.directory.server.dhcp.options.vendor.DomainNameServers;
 import org.apache.directory.server.dhcp.options.vendor.Routers;
-import org.apache.directory.server.dhcp.service.manager.AbstractDynamicLeaseManager;
 
+import java.io.File;
 import java.net.BindException;
 import java.net.Inet4Address;
 import java.net.InetAddress;
@@ -35,6 +37,8 @@ import java.util.Arrays;
 public class Dhcp {
     private static net.java.faker.util.network.NetworkInterface dhcpInterface;
     private static DhcpServer server;
+    private static DynamicLeaseManager leaseManager;
+    private static WriteBehindFile leaseWriter;
 
     private static Routers createRouter(String address) {
         Routers router = new Routers();
@@ -79,6 +83,11 @@ public class Dhcp {
             }
             server = null;
         }
+        if (leaseManager != null) {
+            leaseManager.saveLeases();
+            leaseManager.flushLeases();
+            leaseManager = null;
+        }
         if (dhcpInterface != null) {
             try {
                 NetworkUtil.restoreAddress(dhcpInterface);
@@ -119,8 +128,11 @@ public class Dhcp {
             dhcpInterface = networkInterface;
 
 
-            AbstractDynamicLeaseManager manager = new DynamicLeaseManager(start, end, createRouter(address), createDns(dns));
-            server = new DhcpServer(manager);
+            if (leaseWriter == null) {
+                leaseWriter = new WriteBehindFile("dhcp leases", new File(Proxy.getFakerDirectory(), "dhcp_leases.bin"));
+            }
+            leaseManager = new DynamicLeaseManager(start, end, createRouter(address), createDns(dns), leaseWriter);
+            server = new DhcpServer(leaseManager);
 
             NetworkInterface updatedInterface = null;
             for (int i = 0; i < 10; i++) {
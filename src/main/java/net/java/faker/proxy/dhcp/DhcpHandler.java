@@ -31,6 +31,7 @@ import org.apache.directory.server.dhcp.service.DhcpService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
@@ -41,14 +42,21 @@ import java.nio.ByteBuffer;
 public class DhcpHandler extends SimpleChannelInboundHandler<DatagramPacket> {
 
     private static final Logger LOG = LoggerFactory.getLogger(DhcpHandler.class);
+    private static final int REPLY_CAPACITY = 1024;
     private final DhcpService dhcpService;
     private final DhcpInterfaceManager interfaceManager;
+    private final ReplyOptions replyOptions;
     private final DhcpMessageDecoder decoder = new DhcpMessageDecoder();
     private final DhcpMessageEncoder encoder = new DhcpMessageEncoder();
 
-    public DhcpHandler(@Nonnull DhcpService dhcpService, @Nonnull DhcpInterfaceManager interfaceManager) {
+    public DhcpHandler(@Nonnull DhcpService dhcpService, @Nonnull DhcpInterfaceManager interfaceManager, @CheckForNull ReplyOptions replyOptions) {
         this.dhcpService = dhcpService;
         this.interfaceManager = interfaceManager;
+        this.replyOptions = replyOptions;
+    }
+
+    public DhcpHandler(@Nonnull DhcpService dhcpService, @Nonnull DhcpInterfaceManager interfaceManager) {
+        this(dhcpService, interfaceManager, null);
     }
 
     private static void debug(@Nonnull String event, @Nonnull SocketAddress src, @Nonnull SocketAddress dst, @Nonnull DhcpMessage msg) {
@@ -58,7 +66,8 @@ public class DhcpHandler extends SimpleChannelInboundHandler<DatagramPacket> {
 
     @Override
     protected void channelRead0(ChannelHandlerContext ctx, DatagramPacket msg) throws Exception {
-        DhcpMessage request = decoder.decode(msg.content().nioBuffer());
+        ByteBuf content = msg.content();
+        DhcpMessage request = decoder.decode(content.internalNioBuffer(content.readerIndex(), content.readableBytes()));
 
         DhcpRequestContext context = interfaceManager.newRequestContext(
                 (InetSocketAddress) ctx.channel().localAddress(),
@@ -97,11 +106,7 @@ public class DhcpHandler extends SimpleChannelInboundHandler<DatagramPacket> {
                     request, reply,
                     localAddress, msg.sender().getPort());
 
-            ByteBuf buf = ctx.alloc().buffer(1024);
-            ByteBuffer buffer = buf.nioBuffer(buf.writerIndex(), buf.writableBytes());
-            encoder.encode(buffer, reply);
-            buffer.flip();
-            buf.writerIndex(buf.writerIndex() + buffer.remaining());
+            ByteBuf buf = this.encode(ctx, reply);
             DatagramPacket packet = new DatagramPacket(buf, isa);
             debug("WRITE", packet.sender(), packet.recipient(), reply);
             ctx.write(packet, ctx.voidPromise());
@@ -110,6 +115,28 @@ public class DhcpHandler extends SimpleChannelInboundHandler<DatagramPacket> {
         }
     }
 
+    private ByteBuf encode(ChannelHandlerContext ctx, DhcpMessage reply) throws Exception {
+        boolean shared = this.replyOptions != null && ReplyOptions.appliesTo(reply);
+        int capacity = shared ? REPLY_CAPACITY + this.replyOptions.length() : REPLY_CAPACITY;
+        ByteBuf buf = ctx.alloc().ioBuffer(capacity);
+        try {
+            //view over the pooled memory, its position is not zero for pooled buffers
+            ByteBuffer buffer = buf.internalNioBuffer(0, capacity);
+            int begin = buffer.position();
+            encoder.encode(buffer, reply);
+            if (shared && !this.replyOptions.appendTo(buffer)) {
+                buffer.position(begin);
+                this.replyOptions.addTo(reply);
+                encoder.encode(buffer, reply);
+            }
+            buf.writerIndex(buffer.position() - begin);
+            return buf;
+        } catch (Throwable t) {
+            buf.release();
+            throw t;
+        }
+    }
+
     @Override
     public void channelReadComplete(ChannelHandlerContext ctx) throws Exception {
         ctx.flush();
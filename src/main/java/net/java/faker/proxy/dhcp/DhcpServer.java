@@ -19,6 +19,7 @@
 package net.java.faker.proxy.dhcp;
 
 import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoop;
@@ -41,6 +42,7 @@ public class DhcpServer extends DhcpInterfaceManager {
 
     private final DhcpService service;
     private final int port;
+    private ReplyOptions replyOptions;
     private Channel channel;
 
     public DhcpServer(@Nonnull DhcpService service, @Nonnegative int port) {
@@ -54,23 +56,28 @@ public class DhcpServer extends DhcpInterfaceManager {
 
     public DhcpServer(@Nonnull LeaseManager manager, @Nonnegative int port) {
         this(new LeaseManagerDhcpService(manager), port);
+        if (manager instanceof DynamicLeaseManager) {
+            this.replyOptions = ((DynamicLeaseManager) manager).getReplyOptions();
+        }
     }
 
     public DhcpServer(@Nonnull LeaseManager manager) {
-        this(new LeaseManagerDhcpService(manager));
+        this(manager, DhcpService.SERVER_PORT);
     }
 
     public void start() throws IOException, InterruptedException {
         super.start();
 
+        //one datagram socket, one thread
         ThreadFactory factory = new DefaultThreadFactory("dhcp-server");
-        EventLoopGroup group = new NioEventLoopGroup(0, factory);
+        EventLoopGroup group = new NioEventLoopGroup(1, factory);
 
         Bootstrap b = new Bootstrap();
         b.group(group);
         b.channel(NioDatagramChannel.class);
         b.option(ChannelOption.SO_BROADCAST, true);
-        b.handler(new DhcpHandler(service, this));
+        b.option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT);
+        b.handler(new DhcpHandler(service, this, replyOptions));
         channel = b.bind(port).sync().channel();
     }
 
@@ -18,6 +18,7 @@
 
 package net.java.faker.proxy.dhcp;
 
+import net.java.faker.save.WriteBehindFile;
 import net.java.faker.util.logging.Logger;
 import net.java.faker.util.network.NetworkUtil;
 import org.anarres.dhcp.common.address.NetworkAddress;
@@ -36,29 +37,22 @@ import javax.annotation.Nonnull;
 import java.net.Inet4Address;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.Map;
 
 public class DynamicLeaseManager extends AbstractDynamicLeaseManager {
-    Routers routers;
-    DomainNameServers nameServers;
-    Map<HardwareAddress, Lease> leases = new HashMap<>();
+    final ReplyOptions replyOptions;
+    final AddressPool pool;
+    final WriteBehindFile leaseWriter;
     Inet4Address startAddress;
     Inet4Address endAddress;
-    int start;
-    int end;
-    int next;
 
-    public DynamicLeaseManager(String startAddress, String endAddress, Routers routers, DomainNameServers nameServers) throws UnknownHostException {
-        this((Inet4Address) InetAddress.getByName(startAddress), (Inet4Address) InetAddress.getByName(endAddress), routers, nameServers);
+    public DynamicLeaseManager(String startAddress, String endAddress, Routers routers, DomainNameServers nameServers, WriteBehindFile leaseWriter) throws UnknownHostException {
+        this((Inet4Address) InetAddress.getByName(startAddress), (Inet4Address) InetAddress.getByName(endAddress), routers, nameServers, leaseWriter);
     }
 
-    public DynamicLeaseManager(Inet4Address startAddress, Inet4Address endAddress, Routers routers, DomainNameServers nameServers) {
+    public DynamicLeaseManager(Inet4Address startAddress, Inet4Address endAddress, Routers routers, DomainNameServers nameServers, WriteBehindFile leaseWriter) {
         this.startAddress = startAddress;
         this.endAddress = endAddress;
-        this.routers = routers;
-        this.nameServers = nameServers;
+        this.replyOptions = new ReplyOptions(routers, nameServers);
         TTL_LEASE.minLeaseTime = 3600;
         TTL_LEASE.maxLeaseTime = 86400 * 3;
         TTL_LEASE.defaultLeaseTime = 86400;
@@ -66,9 +60,11 @@ public class DynamicLeaseManager extends AbstractDynamicLeaseManager {
         TTL_OFFER.minLeaseTime = 3600;
         TTL_OFFER.maxLeaseTime = 86400 * 3;
         TTL_OFFER.defaultLeaseTime = 86400;
-        this.start = NetworkUtil.getIntAddress(this.startAddress);
-        this.end = NetworkUtil.getIntAddress(this.endAddress);
-        this.next = start;
+        this.pool = new AddressPool(NetworkUtil.getIntAddress(this.startAddress), NetworkUtil.getIntAddress(this.endAddress));
+        this.leaseWriter = leaseWriter;
+        if (leaseWriter != null) {
+            this.pool.load(leaseWriter.getFile());
+        }
     }
 
     @CheckForNull
@@ -89,60 +85,44 @@ public class DynamicLeaseManager extends AbstractDynamicLeaseManager {
         throw new DhcpException("leaseIp not implemented");
     }
 
-    private Inet4Address nextAddress() throws DhcpException {
-        while (this.next <= this.end) {
-            Inet4Address nextAddress = NetworkUtil.fromIntAddress(this.next);
-            this.next++;
-            if (NetworkUtil.localIpExists(nextAddress.getHostAddress())) {
-                continue;
-            }
-            return nextAddress;
-        }
-        long currentSeconds = System.currentTimeMillis() / 1000;
-        Iterator<Map.Entry<HardwareAddress, Lease>> iterator = this.leases.entrySet().iterator();
-        while (iterator.hasNext()) {
-            Map.Entry<HardwareAddress, Lease> e = iterator.next();
-            if (e.getValue().getExpires() < currentSeconds) {
-                iterator.remove();
-                Inet4Address address = (Inet4Address) e.getValue().getClientAddress();
-                if (!NetworkUtil.localIpExists(address.getHostAddress())) {
-                    return address;
-                }
-            }
-        }
-        throw new DhcpException("No free leases");
-    }
-
-    private Lease newLease(HardwareAddress hardwareAddress, long ttl) throws DhcpException {
-        long currentSeconds = System.currentTimeMillis() / 1000;
-        Lease lease = new Lease(hardwareAddress, nextAddress());
-        lease.setExpires(currentSeconds + ttl);
-        return lease;
-    }
-
     @CheckForNull
     @Override
     protected InetAddress leaseMac(@Nonnull DhcpRequestContext context, @Nonnull DhcpMessage request, @CheckForNull InetAddress clientRequestedAddress, long ttl) throws Exception {
         HardwareAddress hardwareAddress = request.getHardwareAddress();
-        Lease lease = leases.get(hardwareAddress);
-//        if (lease != null) {
-//            long currentSeconds = System.currentTimeMillis() / 1000;
-//            if (lease.getExpires() < currentSeconds) {
-//                leases.remove(hardwareAddress);
-//                lease = null;
-//            }
-//        }
+        long expires = System.currentTimeMillis() / 1000 + ttl;
+        Lease lease = this.pool.get(hardwareAddress);
         if (lease == null) {
-            lease = newLease(hardwareAddress, ttl);
-            this.leases.put(hardwareAddress, lease);
+            lease = this.pool.allocate(hardwareAddress, expires);
+            if (lease == null) {
+                throw new DhcpException("No free leases");
+            }
             Logger.info("<DHCP> new lease " + lease.getHardwareAddress() + " " + lease.getClientAddress());
+            this.saveLeases();
         } else {
-            Logger.info("<DHCP> old lease " + lease.getHardwareAddress() + " " + lease.getClientAddress());
+            this.pool.renew(lease, expires);
+            Logger.debug("<DHCP> old lease " + lease.getHardwareAddress() + " " + lease.getClientAddress());
+            this.saveLeases();
         }
-
         return lease.getClientAddress();
     }
 
+    //only marks the pool dirty, the snapshot is taken on the save thread once the writes settle
+    public void saveLeases() {
+        if (this.leaseWriter != null) {
+            this.leaseWriter.write(this.pool::serialize);
+        }
+    }
+
+    public void flushLeases() {
+        if (this.leaseWriter != null) {
+            this.leaseWriter.flush();
+        }
+    }
+
+    public ReplyOptions getReplyOptions() {
+        return this.replyOptions;
+    }
+
     @Override
     public DhcpMessage leaseRequest(DhcpRequestContext context, DhcpMessage request, InetAddress clientRequestedAddress, long clientRequestedExpirySecs) throws DhcpException {
         Logger.debug(" request " + request + " " + clientRequestedAddress);
@@ -150,8 +130,6 @@ public class DynamicLeaseManager extends AbstractDynamicLeaseManager {
         if (reply == null) {
             return null;
         }
-        reply.getOptions().add(routers);
-        reply.getOptions().add(nameServers);
         Logger.debug(" request reply " + reply);
         return reply;
     }
@@ -164,8 +142,6 @@ public class DynamicLeaseManager extends AbstractDynamicLeaseManager {
         if (reply == null) {
             return null;
         }
-        reply.getOptions().add(routers);
-        reply.getOptions().add(nameServers);
         Logger.debug(" offer reply " + reply);
         return reply;
     }
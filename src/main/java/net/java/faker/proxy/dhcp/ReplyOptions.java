@@ -0,0 +1,75 @@
+/*
+ * This file is part of faker - https://github.com/o1seth/faker
+ * Copyright (C) 2024 o1seth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.java.faker.proxy.dhcp;
+
+import org.apache.directory.server.dhcp.messages.DhcpMessage;
+import org.apache.directory.server.dhcp.messages.MessageType;
+import org.apache.directory.server.dhcp.options.DhcpOption;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+//options that are the same for every offer and ack, encoded once
+public class ReplyOptions {
+    private static final byte END = (byte) 0xff;
+
+    private final DhcpOption[] options;
+    private final byte[] encoded;
+
+    public ReplyOptions(DhcpOption... options) {
+        this.options = options;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (DhcpOption option : options) {
+            byte[] data = option.getData();
+            out.write(option.getTag());
+            out.write(data.length);
+            out.write(data, 0, data.length);
+        }
+        this.encoded = out.toByteArray();
+    }
+
+    public static boolean appliesTo(DhcpMessage reply) {
+        MessageType type = reply.getMessageType();
+        return type == MessageType.DHCPOFFER || type == MessageType.DHCPACK;
+    }
+
+    public int length() {
+        return this.encoded.length;
+    }
+
+    //splices the block in front of the end option written by the encoder
+    public boolean appendTo(ByteBuffer encodedReply) {
+        int end = encodedReply.position() - 1;
+        if (end < 0 || encodedReply.get(end) != END || encodedReply.remaining() < this.encoded.length) {
+            return false;
+        }
+        encodedReply.position(end);
+        encodedReply.put(this.encoded);
+        encodedReply.put(END);
+        return true;
+    }
+
+    //slow path for encoders that pad after the end option
+    public void addTo(DhcpMessage reply) {
+        for (DhcpOption option : this.options) {
+            reply.getOptions().add(option);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * This file is part of faker - https://github.com/o1seth/faker
+ * Copyright (C) 2024 o1seth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.java.faker.proxy.event;
+
+import io.netty.util.concurrent.DefaultThreadFactory;
+import net.java.faker.util.logging.Logger;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+//events are mostly posted from netty threads: synchronous subscribers must be cheap,
+//everything else subscribes with an executor (ASYNC, SwingUtilities::invokeLater, ...)
+public class EventBus {
+    public static final ExecutorService ASYNC = Executors.newSingleThreadExecutor(new DefaultThreadFactory("event-bus", true));
+    private static final Subscriber<?>[] EMPTY = new Subscriber<?>[0];
+
+    private final Map<Class<?>, Subscriber<?>[]> subscribers = new ConcurrentHashMap<>();
+
+    public <T extends Event> Subscriber<T> subscribe(Class<T> type, Consumer<? super T> consumer) {
+        return this.subscribe(type, null, consumer);
+    }
+
+    public <T extends Event> Subscriber<T> subscribe(Class<T> type, Executor executor, Consumer<? super T> consumer) {
+        Subscriber<T> subscriber = new Subscriber<>(type, executor, consumer);
+        this.subscribers.compute(type, (k, current) -> {
+            Subscriber<?>[] array = current == null ? EMPTY : current;
+            Subscriber<?>[] copy = Arrays.copyOf(array, array.length + 1);
+            copy[array.length] = subscriber;
+            return copy;
+        });
+        return subscriber;
+    }
+
+    public void unsubscribe(Subscriber<?> subscriber) {
+        this.subscribers.computeIfPresent(subscriber.type, (k, current) -> {
+            Subscriber<?>[] copy = Arrays.stream(current).filter(s -> s != subscriber).toArray(Subscriber<?>[]::new);
+            return copy.length == 0 ? null : copy;
+        });
+    }
+
+    //subscribers of superclasses (up to Event) receive the event too
+    public void post(Event event) {
+        for (Class<?> type = event.getClass(); type != null && Event.class.isAssignableFrom(type); type = type.getSuperclass()) {
+            Subscriber<?>[] array = this.subscribers.get(type);
+            if (array != null) {
+                for (Subscriber<?> subscriber : array) {
+                    subscriber.deliver(event);
+                }
+            }
+        }
+    }
+
+    public static class Subscriber<T extends Event> {
+        private final Class<T> type;
+        private final Executor executor;
+        private final Consumer<? super T> consumer;
+
+        private Subscriber(Class<T> type, Executor executor, Consumer<? super T> consumer) {
+            this.type = type;
+            this.executor = executor;
+            this.consumer = consumer;
+        }
+
+        private void deliver(Event event) {
+            T casted = this.type.cast(event);
+            if (this.executor == null) {
+                this.accept(casted);
+            } else {
+                this.executor.execute(() -> this.accept(casted));
+            }
+        }
+
+        private void accept(T event) {
+            try {
+                this.consumer.accept(event);
+            } catch (Throwable e) {
+                Logger.error("Event subscriber failed on " + event.getClass().getSimpleName(), e);
+            }
+        }
+    }
+}
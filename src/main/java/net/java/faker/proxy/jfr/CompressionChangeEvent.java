@@ -0,0 +1,45 @@
+/*
+ * This file is part of faker - https://github.com/o1seth/faker
+ * Copyright (C) 2024 o1seth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.java.faker.proxy.jfr;
+
+import jdk.jfr.*;
+
+@Name("faker.CompressionChange")
+@Label("Compression Change")
+@Category({"Faker", "Pipeline"})
+@StackTrace(false)
+public class CompressionChangeEvent extends Event {
+    @Label("Side")
+    public String side;
+    @Label("Threshold")
+    public int threshold;
+    @Label("Channel")
+    public String channel;
+
+    public static void emit(String side, int threshold, Object channel) {
+        CompressionChangeEvent event = new CompressionChangeEvent();
+        if (event.isEnabled()) {
+            event.side = side;
+            event.threshold = threshold;
+            event.channel = String.valueOf(channel);
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * This file is part of faker - https://github.com/o1seth/faker
+ * Copyright (C) 2024 o1seth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.java.faker.proxy.jfr;
+
+import jdk.jfr.*;
+
+@Name("faker.LoginStage")
+@Label("Login Stage")
+@Category({"Faker", "Session"})
+@Description("One blocking step of the login, e.g. a session server request")
+@Threshold("0 ms")
+@StackTrace(false)
+public class LoginStageEvent extends Event {
+    @Label("Stage")
+    public String stage;
+    @Label("Connection")
+    public String connection;
+
+    public LoginStageEvent(String stage) {
+        this.stage = stage;
+    }
+
+    public void finish(Object connection) {
+        this.end();
+        if (this.shouldCommit()) {
+            this.connection = String.valueOf(connection);
+            this.commit();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * This file is part of faker - https://github.com/o1seth/faker
+ * Copyright (C) 2024 o1seth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.java.faker.proxy.jfr;
+
+import jdk.jfr.*;
+import net.raphimc.netminecraft.packet.Packet;
+import net.raphimc.netminecraft.packet.UnknownPacket;
+
+@Name("faker.PacketHandle")
+@Label("Packet Handle")
+@Category({"Faker", "Pipeline"})
+@Description("Time spent in Client2ProxyHandler / Proxy2ServerHandler for one decoded packet")
+@Threshold("1 ms")
+@StackTrace(false)
+public class PacketHandleEvent extends Event {
+    @Label("Direction")
+    public String direction;
+    @Label("Packet")
+    public String packet;
+    @Label("Connection")
+    public String connection;
+
+    public void finish(String direction, Packet packet, Object connection) {
+        this.end();
+        if (this.shouldCommit()) {
+            this.direction = direction;
+            this.packet = packet instanceof UnknownPacket p ? "0x" + Integer.toHexString(p.packetId) : packet.getClass().getSimpleName();
+            this.connection = String.valueOf(connection);
+            this.commit();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * This file is part of faker - https://github.com/o1seth/faker
+ * Copyright (C) 2024 o1seth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.java.faker.proxy.metrics;
+
+import io.netty.util.AttributeKey;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class ConnectionMetrics {
+    public static final AttributeKey<ConnectionMetrics> METRICS_ATTRIBUTE_KEY = AttributeKey.valueOf("faker-metrics");
+
+    private final TrafficMetrics[] traffic = new TrafficMetrics[Direction.values().length];
+    private final LongAdder autoReadStalls = new LongAdder();
+    private final MetricHistogram autoReadStallTime = new MetricHistogram();
+    private final LongAdder swaps = new LongAdder();
+    private final MetricHistogram swapTime = new MetricHistogram();
+    private final RttMonitor rtt = new RttMonitor();
+    private final long createdAt = System.currentTimeMillis();
+    private volatile String name;
+
+    public ConnectionMetrics(String name) {
+        this.name = name;
+        for (int i = 0; i < this.traffic.length; i++) {
+            this.traffic[i] = new TrafficMetrics();
+        }
+    }
+
+    public TrafficMetrics traffic(Direction direction) {
+        return this.traffic[direction.ordinal()];
+    }
+
+    public void recordAutoReadStall(long nanos) {
+        this.autoReadStalls.increment();
+        this.autoReadStallTime.record(nanos);
+    }
+
+    public void recordSwap(long nanos) {
+        this.swaps.increment();
+        this.swapTime.record(nanos);
+    }
+
+    public long getAutoReadStalls() {
+        return this.autoReadStalls.sum();
+    }
+
+    public MetricHistogram getAutoReadStallTime() {
+        return this.autoReadStallTime;
+    }
+
+    public long getSwaps() {
+        return this.swaps.sum();
+    }
+
+    public MetricHistogram getSwapTime() {
+        return this.swapTime;
+    }
+
+    public RttMonitor getRtt() {
+        return this.rtt;
+    }
+
+    public long getCreatedAt() {
+        return this.createdAt;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    void addTo(ConnectionMetrics other) {
+        for (Direction direction : Direction.values()) {
+            this.traffic(direction).addTo(other.traffic(direction));
+        }
+        other.autoReadStalls.add(this.getAutoReadStalls());
+        this.autoReadStallTime.addTo(other.autoReadStallTime);
+        other.swaps.add(this.getSwaps());
+        this.swapTime.addTo(other.swapTime);
+        this.rtt.addTo(other.rtt);
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * This file is part of faker - https://github.com/o1seth/faker
+ * Copyright (C) 2024 o1seth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.java.faker.proxy.metrics;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelOutboundBuffer;
+import io.netty.channel.EventLoop;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.FastThreadLocalThread;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+import net.java.faker.util.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+//samples every event loop which ever served a proxy channel: task queue depth, pending writes and
+//the delay of a probe task (how long a freshly submitted task waits for the loop).
+//with -Dfaker.detectBlocking=true a loop which does not run the probe in time gets its stack trace logged
+public class EventLoopMonitor {
+    public static final boolean DETECT_BLOCKING = Boolean.getBoolean("faker.detectBlocking");
+    private static final long BLOCKED_THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(Long.getLong("faker.blockedThresholdMillis", 100));
+    private static final long SAMPLE_INTERVAL_MILLIS = DETECT_BLOCKING ? 50 : 1000;
+
+    private static final Map<EventLoop, LoopStats> LOOPS = new ConcurrentHashMap<>();
+    private static final Set<Channel> CHANNELS = ConcurrentHashMap.newKeySet();
+    private static ScheduledExecutorService sampler;
+
+    public static void watch(Channel channel) {
+        CHANNELS.add(channel);
+        channel.closeFuture().addListener(f -> CHANNELS.remove(channel));
+        LOOPS.computeIfAbsent(channel.eventLoop(), LoopStats::new);
+        startSampler();
+    }
+
+    private static synchronized void startSampler() {
+        if (sampler == null) {
+            sampler = Executors.newSingleThreadScheduledExecutor(new DefaultThreadFactory("event-loop-monitor", true));
+            sampler.scheduleAtFixedRate(EventLoopMonitor::sample, SAMPLE_INTERVAL_MILLIS, SAMPLE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    //call before an operation which blocks the current thread (sync on a future, http request)
+    public static void reportBlocking(String operation) {
+        if (DETECT_BLOCKING && Thread.currentThread() instanceof FastThreadLocalThread) {
+            Logger.error("Blocking call on netty thread " + Thread.currentThread().getName() + ": " + operation, new Throwable("blocking call"));
+        }
+    }
+
+    public static List<LoopStats> getLoops() {
+        List<LoopStats> loops = new ArrayList<>(LOOPS.values());
+        loops.sort((a, b) -> a.getName().compareTo(b.getName()));
+        return loops;
+    }
+
+    private static void sample() {
+        try {
+            Map<EventLoop, Long> pendingWrites = new HashMap<>();
+            for (Channel channel : CHANNELS) {
+                ChannelOutboundBuffer buffer = channel.unsafe().outboundBuffer();
+                if (buffer != null) {
+                    pendingWrites.merge(channel.eventLoop(), buffer.totalPendingWriteBytes(), Long::sum);
+                }
+            }
+            long now = System.nanoTime();
+            for (LoopStats stats : LOOPS.values()) {
+                if (stats.loop.isShutdown()) {
+                    LOOPS.remove(stats.loop);
+                    continue;
+                }
+                stats.pendingWriteBytes = pendingWrites.getOrDefault(stats.loop, 0L);
+                if (stats.loop instanceof SingleThreadEventExecutor executor) {
+                    stats.pendingTasks = executor.pendingTasks();
+                }
+                stats.probe(now);
+            }
+        } catch (Throwable e) {
+            Logger.error("Event loop sampling failed", e);
+        }
+    }
+
+    public static class LoopStats {
+        private final EventLoop loop;
+        private final MetricHistogram delay = new MetricHistogram();
+        private volatile Thread thread;
+        private volatile String name;
+        private volatile long probeSubmittedAt;
+        private volatile int pendingTasks;
+        private volatile long pendingWriteBytes;
+        private volatile boolean reported;
+
+        LoopStats(EventLoop loop) {
+            this.loop = loop;
+            this.name = loop.getClass().getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(loop));
+        }
+
+        private void probe(long now) {
+            long submittedAt = this.probeSubmittedAt;
+            if (submittedAt != 0) {
+                long waiting = now - submittedAt;
+                if (DETECT_BLOCKING && !this.reported && waiting > BLOCKED_THRESHOLD_NANOS && this.thread != null) {
+                    this.reported = true;
+                    Throwable trace = new Throwable("event loop blocked for " + TimeUnit.NANOSECONDS.toMillis(waiting) + " ms");
+                    trace.setStackTrace(this.thread.getStackTrace());
+                    Logger.error("Event loop " + this.name + " is blocked", trace);
+                }
+                return;
+            }
+            this.probeSubmittedAt = now;
+            this.loop.execute(() -> {
+                long delay = System.nanoTime() - now;
+                this.delay.record(delay);
+                this.reported = false;
+                if (this.thread == null) {
+                    this.thread = Thread.currentThread();
+                    this.name = this.thread.getName();
+                }
+                this.probeSubmittedAt = 0;
+            });
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public MetricHistogram getDelay() {
+            return this.delay;
+        }
+
+        public int getPendingTasks() {
+            return this.pendingTasks;
+        }
+
+        public long getPendingWriteBytes() {
+            return this.pendingWriteBytes;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * This file is part of faker - https://github.com/o1seth/faker
+ * Copyright (C) 2024 o1seth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.java.faker.proxy.metrics;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+//wait-free recording, the reader folds the recorded interval into the total
+public class MetricHistogram {
+    private final Recorder recorder = new Recorder(3);
+    private final Histogram total = new Histogram(3);
+    private Histogram interval;
+
+    public void record(long value) {
+        this.recorder.recordValue(Math.max(0, value));
+    }
+
+    public synchronized Histogram snapshot() {
+        this.collect();
+        return this.total.copy();
+    }
+
+    public synchronized void addTo(MetricHistogram other) {
+        this.collect();
+        synchronized (other) {
+            other.collect();
+            other.total.add(this.total);
+        }
+    }
+
+    private void collect() {
+        this.interval = this.recorder.getIntervalHistogram(this.interval);
+        this.total.add(this.interval);
+    }
+}
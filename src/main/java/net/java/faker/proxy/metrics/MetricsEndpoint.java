@@ -0,0 +1,208 @@
+/*
+ * This file is part of faker - https://github.com/o1seth/faker
+ * Copyright (C) 2024 o1seth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.java.faker.proxy.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import net.java.faker.Proxy;
+import net.java.faker.proxy.client2proxy.AdmissionControl;
+import net.java.faker.proxy.client2proxy.OutboundScheduler;
+import net.java.faker.proxy.dhcp.Dhcp;
+import net.java.faker.proxy.session.OutboundConnections;
+import net.java.faker.util.logging.Logger;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+//Prometheus text format on http://127.0.0.1:<port>/metrics, enabled with -Dfaker.metricsPort=<port>
+public class MetricsEndpoint {
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    private static HttpServer server;
+
+    public static synchronized void startIfConfigured() {
+        Integer port = Integer.getInteger("faker.metricsPort");
+        if (port != null) {
+            start(port);
+        }
+    }
+
+    public static synchronized void start(int port) {
+        if (server != null) {
+            return;
+        }
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+            server.setExecutor(Executors.newSingleThreadExecutor(new DefaultThreadFactory("metrics-endpoint", true)));
+            server.createContext("/metrics", MetricsEndpoint::handle);
+            server.start();
+            Logger.info("Metrics endpoint started on " + server.getAddress());
+        } catch (IOException e) {
+            server = null;
+            Logger.error("Failed to start metrics endpoint on port " + port, e);
+        }
+    }
+
+    public static synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        byte[] body = scrape().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    public static String scrape() {
+        ConnectionMetrics totals = MetricsRegistry.getTotals();
+        StringBuilder sb = new StringBuilder(8192);
+
+        type(sb, "faker_proxy_up", "gauge");
+        sample(sb, "faker_proxy_up", null, Proxy.isStarted() ? 1 : 0);
+        type(sb, "faker_dhcp_up", "gauge");
+        sample(sb, "faker_dhcp_up", null, Dhcp.isStarted() ? 1 : 0);
+
+        type(sb, "faker_connections", "gauge");
+        sample(sb, "faker_connections", null, MetricsRegistry.getConnectionCount());
+        type(sb, "faker_handshaking_connections", "gauge");
+        sample(sb, "faker_handshaking_connections", null, AdmissionControl.getHandshaking());
+        type(sb, "faker_admission_rejected_total", "counter");
+        sample(sb, "faker_admission_rejected_total", "reason=\"rate\"", AdmissionControl.getRateLimited());
+        sample(sb, "faker_admission_rejected_total", "reason=\"capacity\"", AdmissionControl.getOverCapacity());
+        type(sb, "faker_shed_packets_total", "counter");
+        sample(sb, "faker_shed_packets_total", null, OutboundScheduler.getShedPackets());
+        type(sb, "faker_outbound_connections", "gauge");
+        for (Map.Entry<InetSocketAddress, Integer> entry : OutboundConnections.getCounts().entrySet()) {
+            sample(sb, "faker_outbound_connections", "target=\"" + entry.getKey().getHostString() + ":" + entry.getKey().getPort() + "\"", entry.getValue());
+        }
+
+        type(sb, "faker_packets_total", "counter");
+        for (Direction direction : Direction.values()) {
+            sample(sb, "faker_packets_total", "direction=\"" + direction.getLabel() + "\"", totals.traffic(direction).getPackets());
+        }
+        type(sb, "faker_bytes_total", "counter");
+        for (Direction direction : Direction.values()) {
+            sample(sb, "faker_bytes_total", "direction=\"" + direction.getLabel() + "\"", totals.traffic(direction).getBytes());
+        }
+        type(sb, "faker_wire_bytes_total", "counter");
+        for (Direction direction : Direction.values()) {
+            sample(sb, "faker_wire_bytes_total", "direction=\"" + direction.getLabel() + "\"", totals.traffic(direction).getWireBytes());
+        }
+        type(sb, "faker_compression_ratio", "gauge");
+        for (Direction direction : Direction.values()) {
+            sample(sb, "faker_compression_ratio", "direction=\"" + direction.getLabel() + "\"", totals.traffic(direction).getCompressionRatio());
+        }
+
+        type(sb, "faker_packet_id_packets_total", "counter");
+        for (Direction direction : Direction.values()) {
+            TrafficMetrics traffic = totals.traffic(direction);
+            for (int id = 0; id < TrafficMetrics.MAX_PACKET_ID; id++) {
+                if (traffic.getPackets(id) != 0) {
+                    sample(sb, "faker_packet_id_packets_total", labels(direction, id), traffic.getPackets(id));
+                }
+            }
+        }
+        type(sb, "faker_packet_id_bytes_total", "counter");
+        for (Direction direction : Direction.values()) {
+            TrafficMetrics traffic = totals.traffic(direction);
+            for (int id = 0; id < TrafficMetrics.MAX_PACKET_ID; id++) {
+                if (traffic.getPackets(id) != 0) {
+                    sample(sb, "faker_packet_id_bytes_total", labels(direction, id), traffic.getBytes(id));
+                }
+            }
+        }
+
+        type(sb, "faker_swaps_total", "counter");
+        sample(sb, "faker_swaps_total", null, totals.getSwaps());
+        summary(sb, "faker_swap_duration_seconds", totals.getSwapTime().snapshot());
+
+        type(sb, "faker_autoread_stalls_total", "counter");
+        sample(sb, "faker_autoread_stalls_total", null, totals.getAutoReadStalls());
+        summary(sb, "faker_autoread_stall_seconds", totals.getAutoReadStallTime().snapshot());
+
+        type(sb, "faker_event_loop_pending_tasks", "gauge");
+        for (EventLoopMonitor.LoopStats loop : EventLoopMonitor.getLoops()) {
+            sample(sb, "faker_event_loop_pending_tasks", "loop=\"" + loop.getName() + "\"", loop.getPendingTasks());
+        }
+        type(sb, "faker_event_loop_pending_write_bytes", "gauge");
+        for (EventLoopMonitor.LoopStats loop : EventLoopMonitor.getLoops()) {
+            sample(sb, "faker_event_loop_pending_write_bytes", "loop=\"" + loop.getName() + "\"", loop.getPendingWriteBytes());
+        }
+        type(sb, "faker_event_loop_delay_p99_seconds", "gauge");
+        for (EventLoopMonitor.LoopStats loop : EventLoopMonitor.getLoops()) {
+            sample(sb, "faker_event_loop_delay_p99_seconds", "loop=\"" + loop.getName() + "\"", loop.getDelay().snapshot().getValueAtPercentile(99) / 1e9D);
+        }
+
+        type(sb, "faker_log_dropped_writes_total", "counter");
+        sample(sb, "faker_log_dropped_writes_total", null, Logger.getDroppedWrites());
+
+        RttMonitor rtt = totals.getRtt();
+        summary(sb, "faker_client_rtt_seconds", rtt.getClientRtt().snapshot());
+        summary(sb, "faker_client_rtt_jitter_seconds", rtt.getClientJitter().snapshot());
+        summary(sb, "faker_server_turnaround_seconds", rtt.getServerTurnaround().snapshot());
+        summary(sb, "faker_proxy_added_delay_seconds", rtt.getProxyAdded().snapshot());
+        return sb.toString();
+    }
+
+    //recorded in nanoseconds, exported in seconds
+    public static void summary(StringBuilder sb, String name, Histogram histogram) {
+        type(sb, name, "summary");
+        for (double quantile : QUANTILES) {
+            sample(sb, name, "quantile=\"" + quantile + "\"", histogram.getTotalCount() == 0 ? 0 : histogram.getValueAtPercentile(quantile * 100D) / 1e9D);
+        }
+        sample(sb, name + "_sum", null, histogram.getMean() * histogram.getTotalCount() / 1e9D);
+        sample(sb, name + "_count", null, histogram.getTotalCount());
+    }
+
+    public static void type(StringBuilder sb, String name, String type) {
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    public static void sample(StringBuilder sb, String name, String labels, double value) {
+        sb.append(name);
+        if (labels != null) {
+            sb.append('{').append(labels).append('}');
+        }
+        sb.append(' ');
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            sb.append((long) value);
+        } else {
+            sb.append(String.format(Locale.ROOT, "%.9g", value));
+        }
+        sb.append('\n');
+    }
+
+    private static String labels(Direction direction, int packetId) {
+        return "direction=\"" + direction.getLabel() + "\",id=\"0x" + Integer.toHexString(packetId) + "\"";
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * This file is part of faker - https://github.com/o1seth/faker
+ * Copyright (C) 2024 o1seth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.java.faker.proxy.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class MetricsRegistry {
+    private static final Set<ConnectionMetrics> CONNECTIONS = ConcurrentHashMap.newKeySet();
+    //counters of closed connections, so totals never go backwards
+    private static final ConnectionMetrics CLOSED = new ConnectionMetrics("closed");
+
+    public static void register(ConnectionMetrics metrics) {
+        CONNECTIONS.add(metrics);
+    }
+
+    public static void unregister(ConnectionMetrics metrics) {
+        if (CONNECTIONS.remove(metrics)) {
+            synchronized (CLOSED) {
+                metrics.addTo(CLOSED);
+            }
+        }
+    }
+
+    public static List<ConnectionMetrics> getConnections() {
+        List<ConnectionMetrics> connections = new ArrayList<>(CONNECTIONS);
+        connections.sort(Comparator.comparingLong(ConnectionMetrics::getCreatedAt));
+        return connections;
+    }
+
+    public static int getConnectionCount() {
+        return CONNECTIONS.size();
+    }
+
+    //closed and open connections summed up
+    public static ConnectionMetrics getTotals() {
+        ConnectionMetrics totals = new ConnectionMetrics("total");
+        synchronized (CLOSED) {
+            CLOSED.addTo(totals);
+        }
+        for (ConnectionMetrics metrics : CONNECTIONS) {
+            metrics.addTo(totals);
+        }
+        return totals;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * This file is part of faker - https://github.com/o1seth/faker
+ * Copyright (C) 2024 o1seth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.java.faker.proxy.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//correlates server pings (S2CPing, S2CWindowConfirmation below 1.17) with the client pongs by id
+//server ping arrives -> forwarded to client -> client pong arrives -> pong sent to server
+public class RttMonitor {
+    private static final int MAX_PENDING = 64;
+    private static final int ARRIVED = 0;
+    private static final int FORWARDED = 1;
+    private static final int PONG_RECEIVED = 2;
+
+    private final Map<Integer, long[]> pending = new LinkedHashMap<>(16, 0.75F, false) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, long[]> eldest) {
+            //pongs of the follower are never sent to server
+            return this.size() > MAX_PENDING;
+        }
+    };
+    private final MetricHistogram clientRtt = new MetricHistogram();
+    private final MetricHistogram clientJitter = new MetricHistogram();
+    private final MetricHistogram serverTurnaround = new MetricHistogram();
+    private final MetricHistogram proxyAdded = new MetricHistogram();
+    private long lastClientRtt = -1;
+
+    public synchronized void onServerPing(int id) {
+        this.pending.put(id, new long[]{System.nanoTime(), 0, 0});
+    }
+
+    public synchronized void onPingForwarded(int id) {
+        long[] times = this.pending.get(id);
+        if (times != null && times[FORWARDED] == 0) {
+            times[FORWARDED] = System.nanoTime();
+        }
+    }
+
+    public synchronized void onClientPong(int id) {
+        long[] times = this.pending.get(id);
+        if (times == null || times[FORWARDED] == 0 || times[PONG_RECEIVED] != 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        times[PONG_RECEIVED] = now;
+        long rtt = now - times[FORWARDED];
+        this.clientRtt.record(rtt);
+        if (this.lastClientRtt >= 0) {
+            this.clientJitter.record(Math.abs(rtt - this.lastClientRtt));
+        }
+        this.lastClientRtt = rtt;
+    }
+
+    public synchronized void onPongSent(int id) {
+        long[] times = this.pending.remove(id);
+        if (times == null || times[PONG_RECEIVED] == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        this.serverTurnaround.record(now - times[ARRIVED]);
+        //time the ping and the pong spent inside the proxy
+        this.proxyAdded.record((times[FORWARDED] - times[ARRIVED]) + (now - times[PONG_RECEIVED]));
+    }
+
+    //proxy -> client -> proxy
+    public MetricHistogram getClientRtt() {
+        return this.clientRtt;
+    }
+
+    //difference between two consecutive client round trips
+    public MetricHistogram getClientJitter() {
+        return this.clientJitter;
+    }
+
+    //ping arrived from server -> pong sent to server, the part of the server measured ping behind the proxy
+    public MetricHistogram getServerTurnaround() {
+        return this.serverTurnaround;
+    }
+
+    public MetricHistogram getProxyAdded() {
+        return this.proxyAdded;
+    }
+
+    void addTo(RttMonitor other) {
+        this.clientRtt.addTo(other.clientRtt);
+        this.clientJitter.addTo(other.clientJitter);
+        this.serverTurnaround.addTo(other.serverTurnaround);
+        this.proxyAdded.addTo(other.proxyAdded);
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * This file is part of faker - https://github.com/o1seth/faker
+ * Copyright (C) 2024 o1seth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.java.faker.proxy.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public class TrafficMetrics {
+    //ids above are only counted in the totals
+    public static final int MAX_PACKET_ID = 256;
+
+    private final LongAdder packets = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder wireBytes = new LongAdder();
+    private final AtomicLongArray packetsById = new AtomicLongArray(MAX_PACKET_ID);
+    private final AtomicLongArray bytesById = new AtomicLongArray(MAX_PACKET_ID);
+
+    public void recordPacket(int packetId, int size) {
+        this.packets.increment();
+        this.bytes.add(size);
+        if (packetId >= 0 && packetId < MAX_PACKET_ID) {
+            this.packetsById.getAndIncrement(packetId);
+            this.bytesById.getAndAdd(packetId, size);
+        }
+    }
+
+    public void recordWire(int size) {
+        this.wireBytes.add(size);
+    }
+
+    public long getPackets() {
+        return this.packets.sum();
+    }
+
+    //uncompressed size of packet id and data
+    public long getBytes() {
+        return this.bytes.sum();
+    }
+
+    //size after compression, including length prefixes
+    public long getWireBytes() {
+        return this.wireBytes.sum();
+    }
+
+    public long getPackets(int packetId) {
+        return this.packetsById.get(packetId);
+    }
+
+    public long getBytes(int packetId) {
+        return this.bytesById.get(packetId);
+    }
+
+    public double getCompressionRatio() {
+        long bytes = this.getBytes();
+        return bytes == 0 ? 1D : (double) this.getWireBytes() / bytes;
+    }
+
+    void addTo(TrafficMetrics other) {
+        other.packets.add(this.getPackets());
+        other.bytes.add(this.getBytes());
+        other.wireBytes.add(this.getWireBytes());
+        for (int i = 0; i < MAX_PACKET_ID; i++) {
+            long packets = this.packetsById.get(i);
+            if (packets != 0) {
+                other.packetsById.getAndAdd(i, packets);
+                other.bytesById.getAndAdd(i, this.bytesById.get(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * This file is part of faker - https://github.com/o1seth/faker
+ * Copyright (C) 2024 o1seth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.java.faker.proxy.metrics;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import net.raphimc.netminecraft.constants.MCPipeline;
+
+public class TrafficMetricsHandler extends ChannelDuplexHandler {
+    public static final String WIRE_METRICS_HANDLER_NAME = "wire-metrics";
+    public static final String PACKET_METRICS_HANDLER_NAME = "packet-metrics";
+
+    private final TrafficMetrics inbound;
+    private final TrafficMetrics outbound;
+    private final boolean wire;
+
+    private TrafficMetricsHandler(TrafficMetrics inbound, TrafficMetrics outbound, boolean wire) {
+        this.inbound = inbound;
+        this.outbound = outbound;
+        this.wire = wire;
+    }
+
+    //wire bytes are counted in front of the sizer (after decryption), packets in front of the codec (after decompression)
+    public static void install(Channel channel, ConnectionMetrics metrics, Direction inbound, Direction outbound) {
+        channel.attr(ConnectionMetrics.METRICS_ATTRIBUTE_KEY).set(metrics);
+        channel.pipeline().addBefore(MCPipeline.SIZER_HANDLER_NAME, WIRE_METRICS_HANDLER_NAME, new TrafficMetricsHandler(metrics.traffic(inbound), metrics.traffic(outbound), true));
+        channel.pipeline().addBefore(MCPipeline.PACKET_CODEC_HANDLER_NAME, PACKET_METRICS_HANDLER_NAME, new TrafficMetricsHandler(metrics.traffic(inbound), metrics.traffic(outbound), false));
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        if (msg instanceof ByteBuf buf) {
+            this.record(this.inbound, buf);
+        }
+        super.channelRead(ctx, msg);
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        if (msg instanceof ByteBuf buf) {
+            this.record(this.outbound, buf);
+        }
+        super.write(ctx, msg, promise);
+    }
+
+    private void record(TrafficMetrics metrics, ByteBuf buf) {
+        if (this.wire) {
+            metrics.recordWire(buf.readableBytes());
+        } else {
+            metrics.recordPacket(peekPacketId(buf), buf.readableBytes());
+        }
+    }
+
+    private static int peekPacketId(ByteBuf buf) {
+        int index = buf.readerIndex();
+        int end = Math.min(buf.writerIndex(), index + 3);
+        int value = 0;
+        for (int i = 0; index + i < end; i++) {
+            byte b = buf.getByte(index + i);
+            value |= (b & 0x7F) << (i * 7);
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        return -1;
+    }
+}
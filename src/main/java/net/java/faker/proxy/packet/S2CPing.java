@@ -19,9 +19,8 @@
 package net.java.faker.proxy.packet;
 
 import io.netty.buffer.ByteBuf;
-import net.raphimc.netminecraft.packet.Packet;
 
-public class S2CPing implements Packet {
+public class S2CPing extends S2CAbstractPing {
     public int id;
 
     @Override
@@ -34,4 +33,9 @@ public class S2CPing implements Packet {
         byteBuf.writeInt(this.id);
     }
 
+    @Override
+    public int getId() {
+        return id;
+    }
+
 }
\ No newline at end of file
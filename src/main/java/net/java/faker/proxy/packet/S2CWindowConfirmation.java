@@ -0,0 +1,52 @@
+/*
+ * This file is part of faker - https://github.com/o1seth/faker
+ * Copyright (C) 2024 o1seth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.java.faker.proxy.packet;
+
+import io.netty.buffer.ByteBuf;
+
+public class S2CWindowConfirmation extends S2CAbstractPing {
+    public int windowId;
+    public short uid;
+    public boolean accepted;
+
+    @Override
+    public void read(ByteBuf byteBuf, int protocolVersion) {
+        this.windowId = byteBuf.readByte();
+        this.uid = byteBuf.readShort();
+        this.accepted = byteBuf.readByte() != 0;
+    }
+
+    @Override
+    public void write(ByteBuf byteBuf, int protocolVersion) {
+        byteBuf.writeByte(this.windowId);
+        byteBuf.writeShort(this.uid);
+        byteBuf.writeByte(this.accepted ? 1 : 0);
+    }
+
+    @Override
+    public int getId() {
+        return uid;
+    }
+
+    @Override
+    public String toString() {
+        return "S2CWindowConfirmation " + windowId + ": " + uid + ", " + accepted;
+    }
+}
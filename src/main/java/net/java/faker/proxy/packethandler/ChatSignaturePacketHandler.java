@@ -20,10 +20,14 @@ package net.java.faker.proxy.packethandler;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelFutureListener;
 import net.java.faker.proxy.session.DualConnection;
 import net.java.faker.proxy.session.ProxyConnection;
+import net.java.faker.proxy.util.CryptoWorker;
+import net.java.faker.proxy.util.OrderedSendQueue;
 import net.java.faker.proxy.util.chat.ChatSession1_19_3;
+import net.java.faker.proxy.util.chat.MessageLink;
 import net.java.faker.proxy.util.chat.MessageMetadata;
 import net.java.faker.proxy.util.chat.PlayerMessageSignature;
 import net.raphimc.netminecraft.constants.ConnectionState;
@@ -70,26 +74,23 @@ public class ChatSignaturePacketHandler extends PacketHandler {
                 oldChatMessage.readBytes(lastSeen);
 
                 final MessageMetadata metadata = new MessageMetadata(null, timestamp, salt);
+                //take the link now, so the chain stays in the order messages were received
+                final MessageLink messageLink = chatSession.nextLink();
+                final OrderedSendQueue serverboundQueue = this.proxyConnection.getServerboundQueue();
+                final OrderedSendQueue.Slot slot = serverboundQueue.reserve();
+                final Channel c2p = this.proxyConnection.getC2P();
                 //TODO: handle seen messages
-                final byte[] signature = chatSession.signChatMessage(metadata, message, new PlayerMessageSignature[0]);
-
-                final ByteBuf newChatMessage = Unpooled.buffer();
-                PacketTypes.writeVarInt(newChatMessage, this.chatMessageId);
-                PacketTypes.writeString(newChatMessage, message); // message
-                newChatMessage.writeLong(timestamp); // timestamp
-                newChatMessage.writeLong(salt); // salt
-
-//                Types.OPTIONAL_SIGNATURE_BYTES.write(newChatMessage, signature);
-                if (signature != null) {
-                    newChatMessage.writeBoolean(true);
-                    newChatMessage.writeBytes(signature);
-                } else {
-                    newChatMessage.writeBoolean(false);
-                }
-//                PacketTypes.writeVarInt(newChatMessage, 0); // offset
-//                Types.ACKNOWLEDGED_BIT_SET.write(newChatMessage, new BitSet(20)); // acknowledged
-                newChatMessage.writeBytes(new byte[4]);
-                this.proxyConnection.sendToServer(newChatMessage, ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
+                CryptoWorker.submit(() -> chatSession.signChatMessage(messageLink, metadata, message, new PlayerMessageSignature[0])).whenCompleteAsync((signature, cause) -> {
+                    if (cause != null) {
+                        serverboundQueue.cancel(slot);
+                        c2p.pipeline().fireExceptionCaught(cause);
+                        return;
+                    }
+                    serverboundQueue.complete(slot, () -> {
+                        final ByteBuf newChatMessage = this.createChatMessage(message, timestamp, salt, signature);
+                        this.proxyConnection.sendToServer(newChatMessage, ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
+                    });
+                }, c2p.eventLoop());
                 return false;
             }
         }
@@ -97,5 +98,24 @@ public class ChatSignaturePacketHandler extends PacketHandler {
         return true;
     }
 
+    private ByteBuf createChatMessage(String message, long timestamp, long salt, byte[] signature) {
+        final ByteBuf newChatMessage = Unpooled.buffer();
+        PacketTypes.writeVarInt(newChatMessage, this.chatMessageId);
+        PacketTypes.writeString(newChatMessage, message); // message
+        newChatMessage.writeLong(timestamp); // timestamp
+        newChatMessage.writeLong(salt); // salt
+
+//        Types.OPTIONAL_SIGNATURE_BYTES.write(newChatMessage, signature);
+        if (signature != null) {
+            newChatMessage.writeBoolean(true);
+            newChatMessage.writeBytes(signature);
+        } else {
+            newChatMessage.writeBoolean(false);
+        }
+//        PacketTypes.writeVarInt(newChatMessage, 0); // offset
+//        Types.ACKNOWLEDGED_BIT_SET.write(newChatMessage, new BitSet(20)); // acknowledged
+        newChatMessage.writeBytes(new byte[4]);
+        return newChatMessage;
+    }
 
 }
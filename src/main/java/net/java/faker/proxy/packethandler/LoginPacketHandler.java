@@ -24,7 +24,10 @@ import net.java.faker.Proxy;
 import net.java.faker.proxy.LoginState;
 import net.java.faker.proxy.auth.AuthLibServices;
 import net.java.faker.proxy.auth.ExternalInterface;
+import net.java.faker.proxy.jfr.LoginStageEvent;
+import net.java.faker.proxy.metrics.EventLoopMonitor;
 import net.java.faker.proxy.session.ProxyConnection;
+import net.java.faker.proxy.session.StageDeadlines;
 import net.java.faker.proxy.util.ChannelUtil;
 import net.java.faker.proxy.util.CloseAndReturn;
 import net.java.faker.util.logging.Logger;
@@ -86,6 +89,7 @@ public class LoginPacketHandler extends PacketHandler {
 //                    Logger.raw("      side cancel and send response S2CLoginHelloPacket\n");
 //                }
                 this.proxyConnection.sendToClient(new S2CLoginHelloPacket("", KEY_PAIR.getPublic().getEncoded(), verifyToken, true), ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
+                this.proxyConnection.enterStage(StageDeadlines.Stage.KEY_EXCHANGE);
 
 
             } else {
@@ -106,6 +110,7 @@ public class LoginPacketHandler extends PacketHandler {
         } else if (packet instanceof C2SLoginKeyPacket loginKeyPacket) {
             if (this.loginState != LoginState.SENT_HELLO) throw CloseAndReturn.INSTANCE;
             this.loginState = LoginState.SENT_KEY;
+            this.proxyConnection.enterStage(StageDeadlines.Stage.LOGIN);
 
             if (loginKeyPacket.encryptedNonce != null) {
                 if (!Arrays.equals(verifyToken, CryptUtil.decryptData(KEY_PAIR.getPrivate(), loginKeyPacket.encryptedNonce))) {
@@ -123,9 +128,12 @@ public class LoginPacketHandler extends PacketHandler {
             final SecretKey secretKey = CryptUtil.decryptSecretKey(KEY_PAIR.getPrivate(), loginKeyPacket.encryptedSecretKey);
             this.proxyConnection.setC2pEncryption(new AESEncryption(secretKey));
             final String userName = this.proxyConnection.getGameProfile().getName();
+            EventLoopMonitor.reportBlocking("session server hasJoined");
+            LoginStageEvent event = new LoginStageEvent("has joined server");
+            event.begin();
             try {
                 final String serverHash = new BigInteger(CryptUtil.computeServerIdHash("", KEY_PAIR.getPublic(), secretKey)).toString(16);
-                final GameProfile mojangProfile = AuthLibServices.SESSION_SERVICE.hasJoinedServer(this.proxyConnection.getGameProfile(), serverHash, null);
+                final GameProfile mojangProfile = AuthLibServices.getSessionService().hasJoinedServer(this.proxyConnection.getGameProfile(), serverHash, null);
                 if (mojangProfile == null) {
                     Logger.u_err("auth", this.proxyConnection, "Invalid session");
                     this.proxyConnection.kickClient("Invalid session! Please restart minecraft (and the launcher) and try again.");
@@ -135,6 +143,8 @@ public class LoginPacketHandler extends PacketHandler {
                 Logger.u_info("auth", this.proxyConnection, "Authenticated as " + this.proxyConnection.getGameProfile().getId().toString());
             } catch (Throwable e) {
                 throw new RuntimeException("Failed to make session request for user '" + userName + "'!", e);
+            } finally {
+                event.finish(this.proxyConnection);
             }
 //            if (proxyConnection.isController()) {
 //                Logger.raw("controller cancel and send C2SLoginHelloPacket instead\n");
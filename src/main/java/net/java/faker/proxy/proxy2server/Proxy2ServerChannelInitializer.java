@@ -21,7 +21,11 @@ package net.java.faker.proxy.proxy2server;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandler;
 import net.java.faker.proxy.PacketRegistry;
+import net.java.faker.proxy.metrics.Direction;
+import net.java.faker.proxy.metrics.EventLoopMonitor;
+import net.java.faker.proxy.metrics.TrafficMetricsHandler;
 import net.java.faker.proxy.session.ProxyConnection;
+import net.java.faker.proxy.socket.SocketProfile;
 import net.raphimc.netminecraft.constants.MCPipeline;
 import net.raphimc.netminecraft.netty.connection.MinecraftChannelInitializer;
 
@@ -37,6 +41,9 @@ public class Proxy2ServerChannelInitializer extends MinecraftChannelInitializer
     protected void initChannel(Channel channel) {
         super.initChannel(channel);
         ProxyConnection proxyConnection = ProxyConnection.fromChannel(channel);
+        TrafficMetricsHandler.install(channel, proxyConnection.getMetrics(), Direction.SERVER_TO_PROXY, Direction.PROXY_TO_SERVER);
+        EventLoopMonitor.watch(channel);
+        SocketProfile.SERVER.apply(channel);
         channel.attr(MCPipeline.PACKET_REGISTRY_ATTRIBUTE_KEY).set(new PacketRegistry(true, proxyConnection.getVersion()));
     }
 }
@@ -27,9 +27,15 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 import net.java.faker.Proxy;
 import net.java.faker.proxy.auth.ExternalInterface;
+import net.java.faker.proxy.jfr.CompressionChangeEvent;
+import net.java.faker.proxy.jfr.PacketHandleEvent;
+import net.java.faker.proxy.packet.S2CAbstractPing;
 import net.java.faker.proxy.packethandler.PacketHandler;
 import net.java.faker.proxy.session.DualConnection;
+import net.java.faker.proxy.session.SessionRegistry;
 import net.java.faker.proxy.session.ProxyConnection;
+import net.java.faker.proxy.util.CloseAndReturn;
+import net.java.faker.proxy.util.CryptoWorker;
 import net.java.faker.proxy.util.ExceptionUtil;
 import net.java.faker.proxy.util.PacketUtils;
 import net.java.faker.proxy.util.chat.ChatSession1_19_3;
@@ -51,7 +57,6 @@ import net.raphimc.netminecraft.packet.impl.play.S2CPlayStartConfigurationPacket
 
 import javax.crypto.SecretKey;
 import java.math.BigInteger;
-import java.net.InetSocketAddress;
 import java.security.PublicKey;
 import java.util.ArrayList;
 import java.util.List;
@@ -75,14 +80,14 @@ public class Proxy2ServerHandler extends SimpleChannelInboundHandler<Packet> {
     @Override
     public void channelInactive(ChannelHandlerContext ctx) throws Exception {
         super.channelInactive(ctx);
-        if (ctx.channel().remoteAddress() instanceof InetSocketAddress isa) {
-            Proxy.connectedAddresses.remove(isa);
+        if (ctx.channel() != this.proxyConnection.getChannel()) {
+            //a connect attempt that lost the race in ConnectRace
+            return;
         }
-
         Logger.u_info("disconnect", this.proxyConnection, "Connection closed (proxy->server)");
         if (proxyConnection.dualConnection != null) {
             ProxyConnection sideConnection = proxyConnection.dualConnection.getSideConnection();
-            Proxy.dualConnection = null;
+            SessionRegistry.remove(proxyConnection.dualConnection);
             try {
                 sideConnection.getC2P().close();
             } catch (Throwable ignored) {
@@ -105,6 +110,16 @@ public class Proxy2ServerHandler extends SimpleChannelInboundHandler<Packet> {
 
     @Override
     protected void channelRead0(ChannelHandlerContext ctx, Packet packet) throws Exception {
+        PacketHandleEvent event = new PacketHandleEvent();
+        event.begin();
+        try {
+            this.handlePacket(ctx, packet);
+        } finally {
+            event.finish("s2p", packet, this.proxyConnection);
+        }
+    }
+
+    private void handlePacket(ChannelHandlerContext ctx, Packet packet) throws Exception {
         if (this.proxyConnection.isForwardMode()) {
             throw new IllegalStateException("Unexpected packet in forward mode " + PacketUtils.toString(packet));
         }
@@ -127,6 +142,13 @@ public class Proxy2ServerHandler extends SimpleChannelInboundHandler<Packet> {
 //            Logger.raw("IN  " + packet);
 //        }
 
+        if (packet instanceof S2CAbstractPing ping) {
+            mainConnection.getMetrics().getRtt().onServerPing(ping.getId());
+            if (sideConnection != null) {
+                sideConnection.getMetrics().getRtt().onServerPing(ping.getId());
+            }
+        }
+
         if (!handleCompression(packet, ctx.channel())) {
             return;
         }
@@ -191,12 +213,34 @@ public class Proxy2ServerHandler extends SimpleChannelInboundHandler<Packet> {
 
             final C2SLoginKeyPacket loginKey = new C2SLoginKeyPacket(encryptedSecretKey, encryptedNonce);
             if (version >= MCVersion.v1_19 && this.proxyConnection.getLoginHelloPacket().key != null) {
-                ExternalInterface.signNonce(loginHelloPacket.nonce, loginKey, this.proxyConnection);
+                //server waits for the key packet, so nothing else can arrive before the signature is done
+                CryptoWorker.submit(() -> ExternalInterface.signNonce(loginHelloPacket.nonce, loginKey, this.proxyConnection)).whenCompleteAsync((signed, cause) -> {
+                    if (cause != null) {
+                        this.channel.pipeline().fireExceptionCaught(cause);
+                        return;
+                    }
+                    if (!signed) {
+                        try {
+                            this.proxyConnection.kickClient("This server requires a signed nonce. Please enable chat signing in the config and select a valid authentication mode.");
+                        } catch (CloseAndReturn ignored) {
+                        }
+                        return;
+                    }
+                    this.sendLoginKey(loginKey, secretKey);
+                }, this.channel.eventLoop());
+                return;
             }
+            this.sendLoginKey(loginKey, secretKey);
+        } catch (Exception e) {
+            ExceptionUtil.throwException(e);
+        }
+    }
 
-//            this.proxyConnection.sendToServer(loginKey, ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
-            this.channel.writeAndFlush(loginKey).addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
-//            this.proxyConnection.setP2sEncryption(new AESEncryption(secretKey));
+    private void sendLoginKey(C2SLoginKeyPacket loginKey, SecretKey secretKey) {
+//        this.proxyConnection.sendToServer(loginKey, ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
+        this.channel.writeAndFlush(loginKey).addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
+//        this.proxyConnection.setP2sEncryption(new AESEncryption(secretKey));
+        try {
             this.channel.attr(MCPipeline.ENCRYPTION_ATTRIBUTE_KEY).set(new AESEncryption(secretKey));
         } catch (Exception e) {
             ExceptionUtil.throwException(e);
@@ -257,6 +301,7 @@ public class Proxy2ServerHandler extends SimpleChannelInboundHandler<Packet> {
                 mainConnection.sendToClient(new S2CLoginCompressionPacket(compressionThreshold), ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE, (ChannelFutureListener) f -> {
                     if (f.isSuccess()) {
                         mainConnection.getC2P().attr(MCPipeline.COMPRESSION_THRESHOLD_ATTRIBUTE_KEY).set(compressionThreshold);
+                        CompressionChangeEvent.emit("c2p", compressionThreshold, mainConnection.getC2P());
                         dualConnection.restoreAutoRead();
                     }
                 });
@@ -265,6 +310,7 @@ public class Proxy2ServerHandler extends SimpleChannelInboundHandler<Packet> {
                 sideConnection.sendToClient(new S2CLoginCompressionPacket(compressionThreshold), ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE, (ChannelFutureListener) f -> {
                     if (f.isSuccess()) {
                         sideConnection.getC2P().attr(MCPipeline.COMPRESSION_THRESHOLD_ATTRIBUTE_KEY).set(compressionThreshold);
+                        CompressionChangeEvent.emit("c2p", compressionThreshold, sideConnection.getC2P());
                         dualConnection.restoreAutoRead();
                     }
                 });
@@ -275,9 +321,11 @@ public class Proxy2ServerHandler extends SimpleChannelInboundHandler<Packet> {
     public boolean handleCompression(Packet packet, Channel channel) {
         if (packet instanceof S2CPlaySetCompressionPacket p) {
             channel.attr(MCPipeline.COMPRESSION_THRESHOLD_ATTRIBUTE_KEY).set(p.compressionThreshold);
+            CompressionChangeEvent.emit("p2s", p.compressionThreshold, channel);
             return false;
         } else if (packet instanceof S2CLoginCompressionPacket p) {
             channel.attr(MCPipeline.COMPRESSION_THRESHOLD_ATTRIBUTE_KEY).set(p.compressionThreshold);
+            CompressionChangeEvent.emit("p2s", p.compressionThreshold, channel);
             return false;
         }
         return true;
@@ -0,0 +1,239 @@
+/*
+ * This file is part of faker - https://github.com/o1seth/faker
+ * Copyright (C) 2024 o1seth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.java.faker.proxy.session;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.DefaultChannelPromise;
+import io.netty.channel.EventLoop;
+import io.netty.util.NetUtil;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.ScheduledFuture;
+import net.java.faker.proxy.socket.SocketProfile;
+import net.java.faker.util.logging.Logger;
+
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+//Happy Eyeballs (RFC 8305) style connect: every resolved address of the target gets an attempt, started one
+//attempt delay after the previous one or as soon as it fails. The first connected channel wins and becomes the
+//proxy->server channel, the others are cancelled. Host names are resolved on a resolver thread, everything else
+//runs on the event loop of the first channel.
+class ConnectRace {
+    private static final long ATTEMPT_DELAY_MILLIS = Long.getLong("faker.connect.attemptDelayMillis", 250);
+    private static final ExecutorService RESOLVER = Executors.newFixedThreadPool(Integer.getInteger("faker.connect.resolverThreads", 2), new DefaultThreadFactory("connect-resolver", true));
+    private static final Map<String, InetAddress> PREFERRED = new ConcurrentHashMap<>();
+
+    private final ProxyConnection connection;
+    private final InetSocketAddress target;
+    private final String key;
+    private List<InetSocketAddress> candidates = Collections.emptyList();
+    private final IntConsumer onBind;
+    private final IntConsumer onRelease;
+    private final Channel first;
+    private final EventLoop eventLoop;
+    private final RacePromise promise;
+    private final List<Channel> attempts = new ArrayList<>();
+    private ScheduledFuture<?> nextAttempt;
+    private int next;
+    private int failed;
+    private Throwable lastCause;
+
+    ConnectRace(ProxyConnection connection, InetSocketAddress target, IntConsumer onBind, IntConsumer onRelease) {
+        this.connection = connection;
+        this.target = target;
+        this.key = key(target);
+        this.onBind = onBind;
+        this.onRelease = onRelease;
+        this.first = connection.getChannel();
+        this.eventLoop = this.first.eventLoop();
+        this.promise = new RacePromise(this.first);
+    }
+
+    //the resolved addresses of the target, the last winner first and then alternating address families
+    private static List<InetSocketAddress> candidates(InetSocketAddress target) {
+        InetAddress[] all;
+        try {
+            all = InetAddress.getAllByName(target.getHostString());
+        } catch (UnknownHostException e) {
+            return Collections.emptyList();
+        }
+        List<InetAddress> addresses = new ArrayList<>(List.of(all));
+        InetAddress preferred = PREFERRED.get(key(target));
+        if (preferred != null && addresses.remove(preferred)) {
+            addresses.add(0, preferred);
+        }
+        List<InetAddress> v6 = new ArrayList<>();
+        List<InetAddress> v4 = new ArrayList<>();
+        for (InetAddress address : addresses) {
+            (address instanceof Inet6Address ? v6 : v4).add(address);
+        }
+        boolean v6First = !addresses.isEmpty() && addresses.get(0) instanceof Inet6Address;
+        List<InetSocketAddress> candidates = new ArrayList<>(addresses.size());
+        for (int i = 0; i < Math.max(v6.size(), v4.size()); i++) {
+            List<InetAddress> a = v6First ? v6 : v4;
+            List<InetAddress> b = v6First ? v4 : v6;
+            if (i < a.size()) {
+                candidates.add(new InetSocketAddress(a.get(i), target.getPort()));
+            }
+            if (i < b.size()) {
+                candidates.add(new InetSocketAddress(b.get(i), target.getPort()));
+            }
+        }
+        return candidates;
+    }
+
+    private static String key(InetSocketAddress target) {
+        return target.getHostString() + ":" + target.getPort();
+    }
+
+    ChannelFuture start() {
+        if (NetUtil.isValidIpV4Address(this.target.getHostString()) || NetUtil.isValidIpV6Address(this.target.getHostString())) {
+            //a literal address needs no lookup
+            List<InetSocketAddress> candidates = candidates(this.target);
+            this.eventLoop.execute(() -> this.resolved(candidates));
+        } else {
+            RESOLVER.execute(() -> {
+                List<InetSocketAddress> candidates = candidates(this.target);
+                this.eventLoop.execute(() -> this.resolved(candidates));
+            });
+        }
+        return this.promise;
+    }
+
+    private void resolved(List<InetSocketAddress> candidates) {
+        if (candidates.isEmpty()) {
+            this.promise.setFailure(new UnknownHostException(this.target.getHostString()));
+            return;
+        }
+        this.candidates = candidates;
+        this.startNext();
+    }
+
+    private void startNext() {
+        if (this.promise.isDone() || this.next >= this.candidates.size()) {
+            return;
+        }
+        if (this.nextAttempt != null) {
+            this.nextAttempt.cancel(false);
+        }
+        int index = this.next++;
+        InetSocketAddress address = this.candidates.get(index);
+        Channel channel = index == 0 ? this.first : this.newChannel();
+        this.attempts.add(channel);
+        channel.bind(new InetSocketAddress(0)).addListener(bound -> {
+            if (!bound.isSuccess()) {
+                this.onAttemptDone(address, channel, bound.cause());
+                return;
+            }
+            int port = ((InetSocketAddress) channel.localAddress()).getPort();
+            if (this.onBind != null) {
+                this.onBind.accept(port);
+            }
+            long start = System.nanoTime();
+            channel.connect(address).addListener(connected -> {
+                if (connected.isSuccess()) {
+                    SocketProfile.recordConnectTime(channel, System.nanoTime() - start);
+                }
+                if (this.onRelease != null) {
+                    this.onRelease.accept(port);
+                }
+                this.onAttemptDone(address, channel, connected.isSuccess() ? null : connected.cause());
+            });
+        });
+        if (this.next < this.candidates.size()) {
+            this.nextAttempt = this.eventLoop.schedule(this::startNext, ATTEMPT_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private Channel newChannel() {
+        Bootstrap bootstrap = new Bootstrap()
+                .group(this.eventLoop)
+                .channel(this.first.getClass())
+                .attr(ProxyConnection.PROXY_CONNECTION_ATTRIBUTE_KEY, this.connection)
+                .handler(this.connection.newChannelInitializer());
+        for (Map.Entry<ChannelOption<?>, Object> option : this.first.config().getOptions().entrySet()) {
+            @SuppressWarnings("unchecked")
+            ChannelOption<Object> key = (ChannelOption<Object>) option.getKey();
+            bootstrap.option(key, option.getValue());
+        }
+        return bootstrap.register().channel();
+    }
+
+    private void onAttemptDone(InetSocketAddress address, Channel channel, Throwable cause) {
+        if (this.promise.isDone()) {
+            //lost the race, the winner is already the proxy->server channel so closing this one touches nothing else
+            channel.close();
+            return;
+        }
+        if (cause != null) {
+            this.lastCause = cause;
+            channel.close();
+            if (++this.failed == this.candidates.size()) {
+                this.promise.setFailure(this.lastCause);
+            } else {
+                this.startNext();
+            }
+            return;
+        }
+        if (this.nextAttempt != null) {
+            this.nextAttempt.cancel(false);
+        }
+        PREFERRED.put(this.key, address.getAddress());
+        if (channel != this.first) {
+            SessionRegistry.replaceChannel(this.connection, channel.newSucceededFuture());
+            Logger.info("Connected to " + address + " after " + this.next + " attempts");
+        }
+        this.promise.winner = channel;
+        for (Channel attempt : this.attempts) {
+            if (attempt != channel) {
+                attempt.close();
+            }
+        }
+        this.promise.setSuccess();
+    }
+
+    //listeners of the race see the winning channel, which is only known once it completes
+    private static class RacePromise extends DefaultChannelPromise {
+        private volatile Channel winner;
+
+        RacePromise(Channel channel) {
+            super(channel);
+        }
+
+        @Override
+        public Channel channel() {
+            Channel winner = this.winner;
+            return winner != null ? winner : super.channel();
+        }
+    }
+}
@@ -20,8 +20,11 @@ package net.java.faker.proxy.session;
 
 
 import io.netty.channel.Channel;
+import io.netty.util.Timeout;
 import net.java.faker.Proxy;
 import net.java.faker.proxy.event.SwapEvent;
+import net.java.faker.proxy.jfr.ControllerSwapEvent;
+import net.java.faker.proxy.metrics.EventLoopMonitor;
 import net.java.faker.proxy.packet.C2SAbstractPong;
 import net.java.faker.proxy.packet.C2SPlayerCommand;
 import net.java.faker.proxy.packet.S2CSetPassengers;
@@ -61,6 +64,8 @@ public class DualConnection {
     private boolean firstSwap = true;
     private List<C2SAbstractPong> skipPongs = Collections.emptyList();
     private long lastSwapControllerTime;
+    SessionKey key;
+    Timeout pairingTimeout;
 
     public DualConnection(ProxyConnection mainConnection) {
         this.mainConnection = mainConnection;
@@ -108,6 +113,9 @@ public class DualConnection {
     }
 
     public synchronized void swapController() {
+        final long start = System.nanoTime();
+        ControllerSwapEvent event = new ControllerSwapEvent();
+        event.begin();
         this.firstSwap = false;
         synchronized (controllerLocker) {
             ProxyConnection follower = this.getFollower0();
@@ -160,6 +168,7 @@ public class DualConnection {
             C2SAbstractPong lastSentPong = controller.getLastSentPong();
             List<C2SAbstractPong> notSentPongs = follower.getPongPacketsAfter(lastSentPong);
             for (C2SAbstractPong pong : notSentPongs) {
+                EventLoopMonitor.reportBlocking("swap controller, resend pong");
                 controller.getChannel().writeAndFlush(pong).syncUninterruptibly();
             }
             this.skipPongs = controller.getPongPacketsAfter(follower.getLastSentPong());
@@ -181,6 +190,12 @@ public class DualConnection {
             this.lastSwapControllerTime = System.currentTimeMillis();
             follower.isController = true;
             controller.isController = false;
+            this.mainConnection.getMetrics().recordSwap(System.nanoTime() - start);
+            event.end();
+            if (event.shouldCommit()) {
+                event.controller = String.valueOf(follower);
+                event.commit();
+            }
             Proxy.event(new SwapEvent(follower));
         }
     }
@@ -287,6 +302,10 @@ public class DualConnection {
         return this.vehicleId >= 0;
     }
 
+    public SessionKey getKey() {
+        return key;
+    }
+
     public ProxyConnection getMainConnection() {
         return mainConnection;
     }
@@ -0,0 +1,62 @@
+/*
+ * This file is part of faker - https://github.com/o1seth/faker
+ * Copyright (C) 2024 o1seth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.java.faker.proxy.session;
+
+import io.netty.channel.ChannelFutureListener;
+
+import java.net.InetSocketAddress;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+//Reference counted proxy->server targets. Acquired before connecting, released once the connect fails or the channel closes.
+//Looked up for every accepted client connection to drop connections the proxy made to itself.
+public class OutboundConnections {
+    private static final ConcurrentHashMap<InetSocketAddress, Integer> COUNTS = new ConcurrentHashMap<>();
+
+    public static void acquire(InetSocketAddress address) {
+        COUNTS.merge(address, 1, Integer::sum);
+    }
+
+    public static void release(InetSocketAddress address) {
+        COUNTS.computeIfPresent(address, (key, count) -> count > 1 ? count - 1 : null);
+    }
+
+    public static ChannelFutureListener releaseOnClose(InetSocketAddress address) {
+        return f -> {
+            if (f.isSuccess()) {
+                f.channel().closeFuture().addListener(c -> release(address));
+            } else {
+                release(address);
+            }
+        };
+    }
+
+    public static boolean contains(InetSocketAddress address) {
+        return COUNTS.containsKey(address);
+    }
+
+    public static int getCount(InetSocketAddress address) {
+        return COUNTS.getOrDefault(address, 0);
+    }
+
+    public static Map<InetSocketAddress, Integer> getCounts() {
+        return new HashMap<>(COUNTS);
+    }
+}
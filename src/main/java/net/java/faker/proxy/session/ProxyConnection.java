@@ -24,13 +24,25 @@ import io.netty.bootstrap.Bootstrap;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.*;
 import io.netty.util.AttributeKey;
+import io.netty.util.Timeout;
 import net.java.faker.Proxy;
 import net.java.faker.auth.Account;
 import net.java.faker.proxy.PacketRegistry;
+import net.java.faker.proxy.client2proxy.OutboundScheduler;
+import net.java.faker.proxy.jfr.ServerConnectEvent;
+import net.java.faker.proxy.metrics.ConnectionMetrics;
+import net.java.faker.proxy.metrics.EventLoopMonitor;
+import net.java.faker.proxy.metrics.MetricsRegistry;
+import net.java.faker.proxy.metrics.TrafficMetricsHandler;
 import net.java.faker.proxy.packet.C2SAbstractPong;
 import net.java.faker.proxy.packet.C2SMovePlayer;
+import net.java.faker.proxy.packet.S2CAbstractPing;
 import net.java.faker.proxy.packethandler.PacketHandler;
+import net.java.faker.proxy.session.StageDeadlines.Stage;
+import net.java.faker.proxy.socket.SocketProfile;
+import net.java.faker.proxy.util.ChannelUtil;
 import net.java.faker.proxy.util.CloseAndReturn;
+import net.java.faker.proxy.util.OrderedSendQueue;
 import net.java.faker.util.logging.Logger;
 import net.lenni0451.mcstructs.text.components.StringComponent;
 import net.raphimc.netminecraft.constants.ConnectionState;
@@ -57,6 +69,8 @@ public class ProxyConnection extends NetClient {
     public static final AttributeKey<ProxyConnection> PROXY_CONNECTION_ATTRIBUTE_KEY = AttributeKey.valueOf("proxy_connection");
 
     private final Channel c2p;
+    private final Supplier<ChannelHandler> p2sHandlerSupplier;
+    private final Function<Supplier<ChannelHandler>, ChannelInitializer<Channel>> p2sInitializerSupplier;
     private final List<PacketHandler> packetHandlers = new ArrayList<>();
 
     private SocketAddress serverAddress;
@@ -77,6 +91,10 @@ public class ProxyConnection extends NetClient {
     private ConnectionState p2sConnectionState = ConnectionState.HANDSHAKING;
     private static final int MAX_SENT_PACKETS = 64;
     private final LinkedList<Packet> sentPackets = new LinkedList<>();
+    private final OrderedSendQueue serverboundQueue = new OrderedSendQueue();
+    private final ConnectionMetrics metrics;
+    private volatile Stage stage;
+    private volatile Timeout stageTimeout;
 
     Object controllerLocker = new Object();
     public int syncPosState;
@@ -96,6 +114,8 @@ public class ProxyConnection extends NetClient {
     public ProxyConnection(final Supplier<ChannelHandler> handlerSupplier, final Function<Supplier<ChannelHandler>, ChannelInitializer<Channel>> channelInitializerSupplier, final Channel c2p, InetSocketAddress src, InetSocketAddress dst) {
         super(handlerSupplier, channelInitializerSupplier);
         this.c2p = c2p;
+        this.p2sHandlerSupplier = handlerSupplier;
+        this.p2sInitializerSupplier = channelInitializerSupplier;
         if (src != null && dst != null) {
             this.isRedirected = true;
             this.realSrcAddress = src;
@@ -114,6 +134,13 @@ public class ProxyConnection extends NetClient {
             }
 
         }
+        ConnectionMetrics metrics = c2p.attr(ConnectionMetrics.METRICS_ATTRIBUTE_KEY).get();
+        this.metrics = metrics != null ? metrics : new ConnectionMetrics(String.valueOf(c2p.remoteAddress()));
+        MetricsRegistry.register(this.metrics);
+        c2p.closeFuture().addListener(f -> {
+            MetricsRegistry.unregister(this.metrics);
+            this.leaveStage();
+        });
     }
 
     public static ProxyConnection fromChannel(final Channel channel) {
@@ -134,20 +161,51 @@ public class ProxyConnection extends NetClient {
         super.initialize(channelType, bootstrap);
     }
 
-    public ChannelFuture connectToServer(final SocketAddress serverAddress, IntConsumer onBind) {
+    //onBind and onRelease get the local port of every attempt, before it connects and once it completed
+    public ChannelFuture connectToServer(final SocketAddress serverAddress, IntConsumer onBind, IntConsumer onRelease) {
         this.serverAddress = serverAddress;
+        ServerConnectEvent event = new ServerConnectEvent();
+        event.begin();
         if (this.channelFuture == null) {
             this.initialize(ChannelType.get(serverAddress), new Bootstrap());
         }
 
-        this.getChannel().bind(new InetSocketAddress(0)).syncUninterruptibly();
-        InetSocketAddress localAddress = (InetSocketAddress) this.getChannel().localAddress();
-        int port = localAddress.getPort();
-        if (onBind != null) {
-            onBind.accept(port);
+        ChannelFuture future;
+        if (serverAddress instanceof InetSocketAddress isa) {
+            //resolves off the event loop, a single address is a race with one attempt
+            future = new ConnectRace(this, isa, onBind, onRelease).start();
+        } else {
+            EventLoopMonitor.reportBlocking("bind proxy->server channel");
+            this.getChannel().bind(new InetSocketAddress(0)).syncUninterruptibly();
+            InetSocketAddress localAddress = (InetSocketAddress) this.getChannel().localAddress();
+            int port = localAddress.getPort();
+            if (onBind != null) {
+                onBind.accept(port);
+            }
+            long start = System.nanoTime();
+            future = this.getChannel().connect(serverAddress);
+            future.addListener(f -> {
+                if (f.isSuccess()) {
+                    SocketProfile.recordConnectTime(this.getChannel(), System.nanoTime() - start);
+                }
+            });
+            if (onRelease != null) {
+                future.addListener(f -> onRelease.accept(port));
+            }
         }
 
-        return this.getChannel().connect(serverAddress);
+        return future.addListener(f -> {
+            event.end();
+            if (event.shouldCommit()) {
+                event.address = String.valueOf(serverAddress);
+                event.success = f.isSuccess();
+                event.commit();
+            }
+        });
+    }
+
+    ChannelInitializer<Channel> newChannelInitializer() {
+        return this.p2sInitializerSupplier.apply(this.p2sHandlerSupplier);
     }
 
     public Channel getC2P() {
@@ -204,6 +262,13 @@ public class ProxyConnection extends NetClient {
 
     public void setGameProfile(final GameProfile gameProfile) {
         this.gameProfile = gameProfile;
+        if (gameProfile != null && gameProfile.getName() != null) {
+            this.metrics.setName(gameProfile.getName() + " " + this.c2p.remoteAddress());
+        }
+    }
+
+    public ConnectionMetrics getMetrics() {
+        return this.metrics;
     }
 
     public C2SLoginHelloPacket getLoginHelloPacket() {
@@ -234,7 +299,16 @@ public class ProxyConnection extends NetClient {
 //                Logger.raw("SKIP: " + PacketUtils.toString(pong));
 //            }
 //        }
-        return getChannel().writeAndFlush(msg);
+        ChannelFuture future = getChannel().writeAndFlush(msg);
+        if (msg instanceof C2SAbstractPong pong) {
+            int id = pong.getId();
+            future.addListener(f -> {
+                if (f.isSuccess()) {
+                    this.metrics.getRtt().onPongSent(id);
+                }
+            });
+        }
+        return future;
     }
 
     private void addSentPacket(Packet packet) {
@@ -271,6 +345,19 @@ public class ProxyConnection extends NetClient {
         return true;
     }
 
+    public OrderedSendQueue getServerboundQueue() {
+        return this.serverboundQueue;
+    }
+
+    //client->proxy packets must not overtake packets which are still being prepared (e.g. signed chat messages)
+    public void sendToServerOrdered(Packet packet, List<ChannelFutureListener> listeners) {
+        if (this.serverboundQueue.isEmpty()) {
+            this.sendToServer(packet, listeners);
+        } else {
+            this.serverboundQueue.send(() -> this.sendToServer(packet, listeners));
+        }
+    }
+
     public void sendToServer(Packet packet, List<ChannelFutureListener> listeners) {
         synchronized (controllerLocker) {
             if (!isController) {
@@ -329,7 +416,16 @@ public class ProxyConnection extends NetClient {
     }
 
     private ChannelFuture sendClient(Packet packet) {
-        return this.c2p.writeAndFlush(packet);
+        ChannelFuture future = this.c2p.writeAndFlush(packet);
+        if (packet instanceof S2CAbstractPing ping) {
+            int id = ping.getId();
+            future.addListener(f -> {
+                if (f.isSuccess()) {
+                    this.metrics.getRtt().onPingForwarded(id);
+                }
+            });
+        }
+        return future;
     }
 
     public void sendToClient(Packet packet) {
@@ -363,6 +459,73 @@ public class ProxyConnection extends NetClient {
     public void setC2pConnectionState(final ConnectionState connectionState) {
         this.c2pConnectionState = connectionState;
         this.c2p.attr(MCPipeline.PACKET_REGISTRY_ATTRIBUTE_KEY).get().setConnectionState(connectionState);
+        if (connectionState == ConnectionState.LOGIN) {
+            this.enterStage(Stage.LOGIN);
+        } else if (connectionState == ConnectionState.CONFIGURATION) {
+            this.enterStage(Stage.CONFIGURATION);
+        } else {
+            this.leaveStage();
+        }
+    }
+
+    public void enterStage(final Stage stage) {
+        StageDeadlines.cancel(this.stageTimeout);
+        this.stage = stage;
+        this.stageTimeout = StageDeadlines.schedule(stage, timeout -> this.c2p.eventLoop().execute(() -> this.onStageDeadline(stage)));
+    }
+
+    public void leaveStage() {
+        StageDeadlines.cancel(this.stageTimeout);
+        this.stage = null;
+        this.stageTimeout = null;
+    }
+
+    public Stage getStage() {
+        return this.stage;
+    }
+
+    private void onStageDeadline(final Stage stage) {
+        if (this.stage != stage || !this.c2p.isOpen()) {
+            return;
+        }
+        //the server side is held back until both clients are connected, the pairing deadline covers that wait
+        DualConnection dualConnection = this.dualConnection;
+        if (dualConnection != null && !dualConnection.isBothConnectionCreated()) {
+            this.enterStage(stage);
+            return;
+        }
+        this.expire(stage);
+    }
+
+    void expire(final Stage stage) {
+        Logger.u_warn("timeout", this, stage + " did not finish within " + stage.getMillis() + " ms");
+        this.leaveStage();
+        this.serverboundQueue.clear();
+        ChannelUtil.releaseAutoRead(this.c2p);
+        //both halves of a session log in in lockstep, a stalled half stalls the other one too
+        DualConnection dualConnection = this.dualConnection;
+        boolean closeServer = true;
+        if (dualConnection != null) {
+            ProxyConnection other = dualConnection.getMainConnection() == this ? dualConnection.getSideConnection() : dualConnection.getMainConnection();
+            if (other != null && other.getC2pConnectionState() == ConnectionState.PLAY) {
+                closeServer = false;
+            } else {
+                SessionRegistry.remove(dualConnection);
+                if (other != null) {
+                    other.leaveStage();
+                    other.getC2P().close();
+                }
+            }
+        }
+        Channel channel = this.getChannel();
+        if (closeServer && channel != null) {
+            ChannelUtil.releaseAutoRead(channel);
+            channel.close();
+        }
+        try {
+            this.kickClient("Timed out during " + stage.name().toLowerCase(Locale.ROOT).replace('_', ' '));
+        } catch (CloseAndReturn ignored) {
+        }
     }
 
     public void setP2sConnectionState(final ConnectionState connectionState) {
@@ -419,6 +582,10 @@ public class ProxyConnection extends NetClient {
         this.channelFuture = proxyConnection.getChannelFuture();
     }
 
+    public void setChannel(ChannelFuture channelFuture) {
+        this.channelFuture = channelFuture;
+    }
+
     public boolean isController() {
         synchronized (controllerLocker) {
             return isController;
@@ -432,6 +599,7 @@ public class ProxyConnection extends NetClient {
     }
 
     public void setForwardMode() {
+        this.leaveStage();
         try {
             removeHandlers(getC2P());
         } catch (Exception e) {
@@ -476,6 +644,12 @@ public class ProxyConnection extends NetClient {
         channel.pipeline().remove(MCPipeline.FLOW_CONTROL_HANDLER_NAME);
         channel.pipeline().remove(MCPipeline.COMPRESSION_HANDLER_NAME);
         channel.pipeline().remove(MCPipeline.PACKET_CODEC_HANDLER_NAME);
+        if (channel.pipeline().get(TrafficMetricsHandler.PACKET_METRICS_HANDLER_NAME) != null) {
+            channel.pipeline().remove(TrafficMetricsHandler.PACKET_METRICS_HANDLER_NAME);
+        }
+        if (channel.pipeline().get(OutboundScheduler.HANDLER_NAME) != null) {
+            channel.pipeline().remove(OutboundScheduler.HANDLER_NAME);
+        }
 //        if(channel.pipeline().get(HandshakeCodec.HANDSHAKE_HANDLER_NAME) != null) {
 //            channel.pipeline().remove(HandshakeCodec.HANDSHAKE_HANDLER_NAME);
 //        }
@@ -0,0 +1,81 @@
+/*
+ * This file is part of faker - https://github.com/o1seth/faker
+ * Copyright (C) 2024 o1seth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.java.faker.proxy.session;
+
+import net.java.faker.auth.Account;
+
+import java.net.InetSocketAddress;
+import java.util.Locale;
+import java.util.Objects;
+
+public final class SessionKey {
+    private final String account;
+    private final String target;
+
+    public SessionKey(String account, String target) {
+        this.account = account;
+        this.target = target;
+    }
+
+    public static SessionKey of(Account account, InetSocketAddress target) {
+        return of(account, target.getHostString(), target.getPort());
+    }
+
+    //host as a client would put it in its handshake: forge markers, a trailing dot and case do not make another server
+    public static SessionKey of(Account account, String host, int port) {
+        String name = account != null ? account.getName() : "offline";
+        int marker = host.indexOf('\0');
+        if (marker >= 0) {
+            host = host.substring(0, marker);
+        }
+        if (host.endsWith(".")) {
+            host = host.substring(0, host.length() - 1);
+        }
+        return new SessionKey(name, host.toLowerCase(Locale.ROOT) + ":" + port);
+    }
+
+    public String getAccount() {
+        return this.account;
+    }
+
+    public String getTarget() {
+        return this.target;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SessionKey that)) {
+            return false;
+        }
+        return this.account.equals(that.account) && this.target.equals(that.target);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.account, this.target);
+    }
+
+    @Override
+    public String toString() {
+        return this.account + "@" + this.target;
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * This file is part of faker - https://github.com/o1seth/faker
+ * Copyright (C) 2024 o1seth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.java.faker.proxy.session;
+
+import io.netty.channel.ChannelFuture;
+import net.java.faker.util.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+//Pairs the two client connections of a dual session by account and target instead of by arrival order.
+//A session is pending until its side connection arrives, after that it is only tracked until it closes.
+//Clients reach the same server under different names (redirect ip, configured host, another A record), so when the
+//target does not match, the only pending session of the account is used. The account is the one global proxy
+//account, so in practice sessions only differ by target.
+public class SessionRegistry {
+    private static final Map<SessionKey, DualConnection> PENDING = new HashMap<>();
+    private static final Set<DualConnection> SESSIONS = new LinkedHashSet<>();
+
+    public static synchronized DualConnection join(SessionKey key, ProxyConnection connection, int version) {
+        DualConnection pending = findPending(key);
+        if (pending != null && !pending.getMainConnection().isClosed() && pending.getMainConnection().getVersion() == version) {
+            PENDING.remove(pending.getKey());
+            StageDeadlines.cancel(pending.pairingTimeout);
+            connection.setController(false);
+            connection.setChannel(pending.getMainConnection());
+            pending.setSideConnection(connection);
+            Logger.info("Dual connection fully initialized " + key + " (" + SESSIONS.size() + " sessions)");
+            return pending;
+        }
+        if (pending != null && pending.getKey().equals(key)) {
+            PENDING.remove(key);
+        }
+        DualConnection session = new DualConnection(connection);
+        session.key = key;
+        connection.setController(true);
+        PENDING.put(key, session);
+        session.pairingTimeout = StageDeadlines.schedule(StageDeadlines.Stage.DUAL_PAIRING, timeout -> {
+            ProxyConnection main = session.getMainConnection();
+            main.getC2P().eventLoop().execute(() -> {
+                if (!session.isBothConnectionCreated() && !main.isClosed()) {
+                    main.expire(StageDeadlines.Stage.DUAL_PAIRING);
+                }
+            });
+        });
+        SESSIONS.add(session);
+        return session;
+    }
+
+    //under the registry lock so a side joining at the same time never keeps the replaced channel
+    static synchronized void replaceChannel(ProxyConnection main, ChannelFuture channelFuture) {
+        main.setChannel(channelFuture);
+        DualConnection session = main.dualConnection;
+        if (session != null && session.getSideConnection() != null) {
+            session.getSideConnection().setChannel(channelFuture);
+        }
+    }
+
+    public static synchronized DualConnection getPending(SessionKey key) {
+        DualConnection pending = findPending(key);
+        if (pending != null && pending.getMainConnection().isClosed()) {
+            PENDING.remove(pending.getKey());
+            return null;
+        }
+        return pending;
+    }
+
+    //true for the target's own paired session, or when the account's only open session is paired
+    public static synchronized boolean hasPairedSession(SessionKey key) {
+        DualConnection only = null;
+        int open = 0;
+        for (DualConnection session : SESSIONS) {
+            if (session.isClosed() || !key.getAccount().equals(session.getKey().getAccount())) {
+                continue;
+            }
+            if (key.equals(session.getKey()) && session.isBothConnectionCreated()) {
+                return true;
+            }
+            only = session;
+            open++;
+        }
+        return open == 1 && only.isBothConnectionCreated();
+    }
+
+    private static DualConnection findPending(SessionKey key) {
+        DualConnection pending = PENDING.get(key);
+        if (pending != null) {
+            return pending;
+        }
+        for (DualConnection candidate : PENDING.values()) {
+            if (candidate.getKey().getAccount().equals(key.getAccount())) {
+                if (pending != null) {
+                    //several candidates, none of them is obviously the right one
+                    return null;
+                }
+                pending = candidate;
+            }
+        }
+        return pending;
+    }
+
+    public static synchronized int getPendingCount() {
+        return PENDING.size();
+    }
+
+    public static synchronized void remove(DualConnection session) {
+        StageDeadlines.cancel(session.pairingTimeout);
+        if (SESSIONS.remove(session)) {
+            Logger.info("Dual connection closed " + session.getKey() + " (" + SESSIONS.size() + " sessions)");
+        }
+        if (session.getKey() != null) {
+            PENDING.remove(session.getKey(), session);
+        }
+    }
+
+    public static synchronized List<DualConnection> getSessions() {
+        return new ArrayList<>(SESSIONS);
+    }
+
+    public static synchronized void clear() {
+        PENDING.clear();
+        SESSIONS.clear();
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * This file is part of faker - https://github.com/o1seth/faker
+ * Copyright (C) 2024 o1seth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.java.faker.proxy.session;
+
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.TimerTask;
+import io.netty.util.concurrent.DefaultThreadFactory;
+
+import java.util.concurrent.TimeUnit;
+
+//Deadlines for the stages a connection passes before PLAY. One shared wheel for every connection,
+//scheduling and cancelling is O(1) and nothing is armed on the event loops themselves.
+public class StageDeadlines {
+    private static final HashedWheelTimer TIMER = new HashedWheelTimer(new DefaultThreadFactory("stage-deadlines", true), 100, TimeUnit.MILLISECONDS, 512);
+
+    public enum Stage {
+        HANDSHAKE("faker.timeout.handshakeMillis", 10_000),
+        LOGIN("faker.timeout.loginMillis", 30_000),
+        KEY_EXCHANGE("faker.timeout.keyExchangeMillis", 30_000),
+        CONFIGURATION("faker.timeout.configurationMillis", 60_000),
+        DUAL_PAIRING("faker.timeout.pairingMillis", 300_000);
+
+        private final long millis;
+
+        Stage(String property, long defaultMillis) {
+            this.millis = Long.getLong(property, defaultMillis);
+        }
+
+        public long getMillis() {
+            return this.millis;
+        }
+    }
+
+    //null when the stage deadline is disabled with a value <= 0
+    public static Timeout schedule(Stage stage, TimerTask task) {
+        if (stage.millis <= 0) {
+            return null;
+        }
+        return TIMER.newTimeout(task, stage.millis, TimeUnit.MILLISECONDS);
+    }
+
+    public static void cancel(Timeout timeout) {
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * This file is part of faker - https://github.com/o1seth/faker
+ * Copyright (C) 2024 o1seth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.java.faker.proxy.socket;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.util.AttributeKey;
+import io.netty.util.concurrent.ScheduledFuture;
+import net.java.faker.proxy.metrics.ConnectionMetrics;
+import net.java.faker.util.logging.Logger;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+
+//Sizes the socket buffers of one connection to twice its bandwidth-delay product. The bandwidth is the peak
+//wire throughput seen per interval, slowly decaying, so it follows what the session actually uses rather than link capacity.
+//Nothing is set until the product exceeds what the socket already has: setting a size turns off the kernel's own
+//tuning, and buffers never shrink below the size the socket started with. Growing SO_RCVBUF after the handshake is
+//still capped by the window scale negotiated at SYN, so only the listener/bootstrap size decides the upper bound.
+class BufferAutoTuner implements Runnable {
+    static final AttributeKey<Long> CONNECT_RTT = AttributeKey.valueOf("connect-rtt");
+    private static final long INTERVAL_MILLIS = 2000;
+    private static final int MAX_BUFFER = 4 * 1024 * 1024;
+
+    private final Channel channel;
+    private final SocketProfile profile;
+    private long lastInbound;
+    private long lastOutbound;
+    private double peakInbound;
+    private double peakOutbound;
+    private int sendBuffer;
+    private int receiveBuffer;
+    private int initialSendBuffer;
+    private int initialReceiveBuffer;
+
+    private BufferAutoTuner(Channel channel, SocketProfile profile) {
+        this.channel = channel;
+        this.profile = profile;
+    }
+
+    static void start(Channel channel, SocketProfile profile) {
+        BufferAutoTuner tuner = new BufferAutoTuner(channel, profile);
+        tuner.initialSendBuffer = channel.config().getOption(ChannelOption.SO_SNDBUF);
+        tuner.initialReceiveBuffer = channel.config().getOption(ChannelOption.SO_RCVBUF);
+        ScheduledFuture<?> future = channel.eventLoop().scheduleAtFixedRate(tuner, INTERVAL_MILLIS, INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        channel.closeFuture().addListener(f -> future.cancel(false));
+    }
+
+    @Override
+    public void run() {
+        ConnectionMetrics metrics = this.channel.attr(ConnectionMetrics.METRICS_ATTRIBUTE_KEY).get();
+        if (metrics == null || !this.channel.isActive()) {
+            return;
+        }
+        long inbound = metrics.traffic(this.profile.getInbound()).getWireBytes();
+        long outbound = metrics.traffic(this.profile.getOutbound()).getWireBytes();
+        double seconds = INTERVAL_MILLIS / 1000D;
+        this.peakInbound = Math.max((inbound - this.lastInbound) / seconds, this.peakInbound * 0.9D);
+        this.peakOutbound = Math.max((outbound - this.lastOutbound) / seconds, this.peakOutbound * 0.9D);
+        this.lastInbound = inbound;
+        this.lastOutbound = outbound;
+
+        long rttNanos = this.rttNanos(metrics);
+        if (rttNanos <= 0) {
+            return;
+        }
+        this.receiveBuffer = this.resize(ChannelOption.SO_RCVBUF, this.receiveBuffer, this.initialReceiveBuffer, this.peakInbound, rttNanos);
+        this.sendBuffer = this.resize(ChannelOption.SO_SNDBUF, this.sendBuffer, this.initialSendBuffer, this.peakOutbound, rttNanos);
+    }
+
+    private int resize(ChannelOption<Integer> option, int current, int initial, double bytesPerSecond, long rttNanos) {
+        long bdp = (long) (bytesPerSecond * rttNanos / 1e9D);
+        int size = (int) Math.max(initial, Math.min(MAX_BUFFER, 2 * bdp));
+        if (current == 0 && size <= initial) {
+            //the socket is big enough as it is, leave it to the kernel
+            return 0;
+        }
+        //only move on a real change, every resize is a syscall
+        if (current != 0 && Math.abs(size - current) < current / 4) {
+            return current;
+        }
+        this.channel.config().setOption(option, size);
+        Logger.debug(this.profile.getName() + " " + option.name() + " -> " + size + " (rtt " + rttNanos / 1000 + " us) " + this.channel);
+        return size;
+    }
+
+    private long rttNanos(ConnectionMetrics metrics) {
+        if (this.channel instanceof EpollSocketChannel epoll) {
+            return epoll.tcpInfo().rtt() * 1000L;
+        }
+        if (this.profile == SocketProfile.CLIENT) {
+            Histogram rtt = metrics.getRtt().getClientRtt().snapshot();
+            return rtt.getTotalCount() == 0 ? 0 : rtt.getValueAtPercentile(50);
+        }
+        Long connectRtt = this.channel.attr(CONNECT_RTT).get();
+        return connectRtt != null ? connectRtt : 0;
+    }
+}
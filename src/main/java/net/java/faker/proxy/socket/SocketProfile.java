@@ -0,0 +1,107 @@
+/*
+ * This file is part of faker - https://github.com/o1seth/faker
+ * Copyright (C) 2024 o1seth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.java.faker.proxy.socket;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelConfig;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.epoll.EpollSocketChannelConfig;
+import net.java.faker.proxy.metrics.Direction;
+
+//Socket options per leg, every value can be overridden with -Dfaker.socket.<leg>.<option>.
+//Buffer sizes default to 0 which keeps the kernel default, on Linux that also keeps receive buffer auto-tuning.
+public enum SocketProfile {
+    //devices on the hotspot or LAN <-> proxy, short round trips
+    CLIENT("client", Direction.CLIENT_TO_PROXY, Direction.PROXY_TO_CLIENT, 32 * 1024, 128 * 1024, 15_000),
+    //proxy <-> game server, possibly long haul
+    SERVER("server", Direction.SERVER_TO_PROXY, Direction.PROXY_TO_SERVER, 64 * 1024, 512 * 1024, 30_000);
+
+    private static final boolean AUTO_TUNE = Boolean.getBoolean("faker.socket.autoTune");
+
+    private final String name;
+    private final Direction inbound;
+    private final Direction outbound;
+    private final boolean tcpNoDelay;
+    private final int sendBuffer;
+    private final int receiveBuffer;
+    private final int writeBufferLow;
+    private final int writeBufferHigh;
+    private final boolean tcpQuickAck;
+    private final int tcpUserTimeout;
+
+    SocketProfile(String name, Direction inbound, Direction outbound, int writeBufferLow, int writeBufferHigh, int tcpUserTimeout) {
+        String prefix = "faker.socket." + name + ".";
+        this.name = name;
+        this.inbound = inbound;
+        this.outbound = outbound;
+        this.tcpNoDelay = Boolean.parseBoolean(System.getProperty(prefix + "tcpNoDelay", "true"));
+        this.sendBuffer = Integer.getInteger(prefix + "sendBuffer", 0);
+        this.receiveBuffer = Integer.getInteger(prefix + "receiveBuffer", 0);
+        this.writeBufferLow = Integer.getInteger(prefix + "writeBufferLow", writeBufferLow);
+        this.writeBufferHigh = Integer.getInteger(prefix + "writeBufferHigh", writeBufferHigh);
+        this.tcpQuickAck = Boolean.parseBoolean(System.getProperty(prefix + "tcpQuickAck", "true"));
+        this.tcpUserTimeout = Integer.getInteger(prefix + "tcpUserTimeout", tcpUserTimeout);
+    }
+
+    public void apply(Channel channel) {
+        ChannelConfig config = channel.config();
+        config.setOption(ChannelOption.TCP_NODELAY, this.tcpNoDelay);
+        if (this.sendBuffer > 0) {
+            config.setOption(ChannelOption.SO_SNDBUF, this.sendBuffer);
+        }
+        if (this.receiveBuffer > 0) {
+            config.setOption(ChannelOption.SO_RCVBUF, this.receiveBuffer);
+        }
+        config.setWriteBufferWaterMark(new WriteBufferWaterMark(this.writeBufferLow, this.writeBufferHigh));
+        if (config instanceof EpollSocketChannelConfig epoll) {
+            epoll.setTcpQuickAck(this.tcpQuickAck);
+            if (this.tcpUserTimeout > 0) {
+                epoll.setTcpUserTimeout(this.tcpUserTimeout);
+            }
+        }
+        if (AUTO_TUNE) {
+            BufferAutoTuner.start(channel, this);
+        }
+    }
+
+    //accepted sockets inherit the receive buffer of the listening socket, and with it the advertised window scale
+    public void applyToListener(Channel serverChannel) {
+        if (this.receiveBuffer > 0) {
+            serverChannel.config().setOption(ChannelOption.SO_RCVBUF, this.receiveBuffer);
+        }
+    }
+
+    //the TCP handshake time of the server leg, used by auto-tuning when the kernel does not report a smoothed RTT
+    public static void recordConnectTime(Channel channel, long nanos) {
+        channel.attr(BufferAutoTuner.CONNECT_RTT).set(nanos);
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    Direction getInbound() {
+        return this.inbound;
+    }
+
+    Direction getOutbound() {
+        return this.outbound;
+    }
+}
@@ -20,6 +20,8 @@ package net.java.faker.proxy.util;
 
 import io.netty.channel.Channel;
 import io.netty.util.AttributeKey;
+import net.java.faker.proxy.jfr.AutoReadHoldEvent;
+import net.java.faker.proxy.metrics.ConnectionMetrics;
 import net.java.faker.proxy.session.ProxyConnection;
 import net.java.faker.util.logging.Logger;
 
@@ -28,6 +30,8 @@ import java.util.Stack;
 public class ChannelUtil {
 
     private static final AttributeKey<Stack<Boolean>> LAST_AUTO_READ = AttributeKey.valueOf("last-auto-read");
+    private static final AttributeKey<Long> AUTO_READ_DISABLED_AT = AttributeKey.valueOf("auto-read-disabled-at");
+    private static final AttributeKey<AutoReadHoldEvent> AUTO_READ_HOLD_EVENT = AttributeKey.valueOf("auto-read-hold-event");
 
     public static void disableAutoRead(final Channel channel) {
         if (channel == null) {
@@ -38,8 +42,15 @@ public class ChannelUtil {
             channel.attr(LAST_AUTO_READ).set(new Stack<>());
         }
 
-        channel.attr(LAST_AUTO_READ).get().push(channel.config().isAutoRead());
+        boolean autoRead = channel.config().isAutoRead();
+        channel.attr(LAST_AUTO_READ).get().push(autoRead);
         channel.config().setAutoRead(false);
+        if (autoRead) {
+            channel.attr(AUTO_READ_DISABLED_AT).set(System.nanoTime());
+            AutoReadHoldEvent event = new AutoReadHoldEvent();
+            event.begin();
+            channel.attr(AUTO_READ_HOLD_EVENT).set(event);
+        }
     }
 
     public static void restoreAutoRead(final Channel channel) {
@@ -48,6 +59,10 @@ public class ChannelUtil {
         }
 //         Logger.LOGGER.info("RESTORE AUTOREAD " + channel);
         if (channel.attr(LAST_AUTO_READ).get() == null) {
+            if (!channel.isOpen()) {
+                //holds were released by a stage deadline
+                return;
+            }
             Logger.error("Tried to restore auto read, but it was never disabled");
             return;
         }
@@ -61,6 +76,33 @@ public class ChannelUtil {
             return;
         }
         channel.config().setAutoRead(channel.attr(LAST_AUTO_READ).get().pop());
+        if (channel.config().isAutoRead()) {
+            endHold(channel);
+        }
+    }
+
+    //drops every hold on a channel that is about to be closed, reads stay disabled
+    public static void releaseAutoRead(final Channel channel) {
+        Stack<Boolean> holds = channel.attr(LAST_AUTO_READ).getAndSet(null);
+        if (holds != null && !holds.isEmpty()) {
+            endHold(channel);
+        }
+    }
+
+    private static void endHold(final Channel channel) {
+        Long disabledAt = channel.attr(AUTO_READ_DISABLED_AT).getAndSet(null);
+        ConnectionMetrics metrics = channel.attr(ConnectionMetrics.METRICS_ATTRIBUTE_KEY).get();
+        if (disabledAt != null && metrics != null) {
+            metrics.recordAutoReadStall(System.nanoTime() - disabledAt);
+        }
+        AutoReadHoldEvent event = channel.attr(AUTO_READ_HOLD_EVENT).getAndSet(null);
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.channel = String.valueOf(channel);
+                event.commit();
+            }
+        }
     }
 
 }
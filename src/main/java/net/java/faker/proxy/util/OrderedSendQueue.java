@@ -0,0 +1,84 @@
+/*
+ * This file is part of faker - https://github.com/o1seth/faker
+ * Copyright (C) 2024 o1seth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.java.faker.proxy.util;
+
+import java.util.ArrayDeque;
+
+//Keeps the order of outgoing packets when some of them are completed asynchronously.
+//Not thread safe, must be used from the event loop of the channel that produces the packets.
+public class OrderedSendQueue {
+
+    private final ArrayDeque<Slot> slots = new ArrayDeque<>();
+
+    public boolean isEmpty() {
+        return this.slots.isEmpty();
+    }
+
+    public int size() {
+        return this.slots.size();
+    }
+
+    public void send(final Runnable send) {
+        if (this.slots.isEmpty()) {
+            send.run();
+            return;
+        }
+        Slot slot = new Slot();
+        slot.send = send;
+        this.slots.addLast(slot);
+    }
+
+    public Slot reserve() {
+        Slot slot = new Slot();
+        this.slots.addLast(slot);
+        return slot;
+    }
+
+    public void complete(final Slot slot, final Runnable send) {
+        slot.send = send;
+        this.drain();
+    }
+
+    public void cancel(final Slot slot) {
+        slot.send = Slot.SKIP;
+        this.drain();
+    }
+
+    public void clear() {
+        this.slots.clear();
+    }
+
+    private void drain() {
+        Slot head;
+        while ((head = this.slots.peekFirst()) != null && head.send != null) {
+            this.slots.pollFirst();
+            head.send.run();
+        }
+    }
+
+    public static class Slot {
+        private static final Runnable SKIP = () -> {
+        };
+        private Runnable send;
+
+        private Slot() {
+        }
+    }
+}
@@ -32,6 +32,7 @@ public class ChatSession {
     private final PrivateKey privateKey;
     private final ProfileKey profileKey;
     private final Signature signer;
+    private final SignerDataConsumer signerDataConsumer = new SignerDataConsumer();
 
     public ChatSession(UUID uuid, PrivateKey privateKey, ProfileKey profileKey) {
         Objects.requireNonNull(uuid, "uuid");
@@ -58,15 +59,55 @@ public class ChatSession {
         return this.profileKey;
     }
 
-    public byte[] sign(Consumer<DataConsumer> dataConsumer) throws SignatureException {
-        dataConsumer.accept((bytes) -> {
+    //may be called from the crypto worker threads, Signature is not thread safe
+    public synchronized byte[] sign(Consumer<DataConsumer> dataConsumer) throws SignatureException {
+        dataConsumer.accept(this.signerDataConsumer);
+        return this.signer.sign();
+    }
+
+    private class SignerDataConsumer implements DataConsumer {
+        private final byte[] buffer = new byte[16];
+
+        @Override
+        public void accept(byte[] bytes) {
+            this.update(bytes, bytes.length);
+        }
+
+        @Override
+        public void accept(UUID uuid) {
+            putLong(this.buffer, 0, uuid.getMostSignificantBits());
+            putLong(this.buffer, 8, uuid.getLeastSignificantBits());
+            this.update(this.buffer, 16);
+        }
+
+        @Override
+        public void acceptInt(int value) {
+            this.buffer[0] = (byte) (value >> 24);
+            this.buffer[1] = (byte) (value >> 16);
+            this.buffer[2] = (byte) (value >> 8);
+            this.buffer[3] = (byte) value;
+            this.update(this.buffer, 4);
+        }
+
+        @Override
+        public void acceptLong(long value) {
+            putLong(this.buffer, 0, value);
+            this.update(this.buffer, 8);
+        }
+
+        private void update(byte[] bytes, int length) {
             try {
-                this.signer.update(bytes);
-            } catch (SignatureException var3) {
-                SignatureException e = var3;
+                ChatSession.this.signer.update(bytes, 0, length);
+            } catch (SignatureException e) {
                 throw new RuntimeException(e);
             }
-        });
-        return this.signer.sign();
+        }
+    }
+
+    private static void putLong(byte[] buffer, int offset, long value) {
+        for (int i = offset + 7; i >= offset; i--) {
+            buffer[i] = (byte) (value & 0xffL);
+            value >>= 8;
+        }
     }
 }
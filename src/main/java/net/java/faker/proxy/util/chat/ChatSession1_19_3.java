@@ -34,16 +34,20 @@ public class ChatSession1_19_3 extends ChatSession {
     }
 
     public byte[] signChatMessage(MessageMetadata metadata, String content, PlayerMessageSignature[] lastSeenMessages) throws SignatureException {
+        return this.signChatMessage(this.nextLink(), metadata, content, lastSeenMessages);
+    }
+
+    //the link must be taken in message order, the signature itself can be computed later on another thread
+    public byte[] signChatMessage(MessageLink messageLink, MessageMetadata metadata, String content, PlayerMessageSignature[] lastSeenMessages) throws SignatureException {
         return this.sign((signer) -> {
-            MessageLink messageLink = this.nextLink();
             MessageBody messageBody = new MessageBody(content, metadata.timestamp(), metadata.salt(), lastSeenMessages);
-            signer.accept(Ints.toByteArray(1));
+            signer.acceptInt(1);
             messageLink.update(signer);
             messageBody.update(signer);
         });
     }
 
-    private MessageLink nextLink() {
+    public synchronized MessageLink nextLink() {
         MessageLink messageLink = this.link;
         if (messageLink != null) {
             this.link = messageLink.next();
@@ -32,4 +32,12 @@ public interface DataConsumer extends Consumer<byte[]> {
         this.accept(serializedUuid);
     }
 
+    default void acceptInt(final int value) {
+        this.accept(Ints.toByteArray(value));
+    }
+
+    default void acceptLong(final long value) {
+        this.accept(Longs.toByteArray(value));
+    }
+
 }
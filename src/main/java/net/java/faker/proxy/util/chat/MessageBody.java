@@ -37,13 +37,13 @@ public class MessageBody {
     }
 
     public void update(final DataConsumer dataConsumer) {
-        dataConsumer.accept(Longs.toByteArray(this.salt));
-        dataConsumer.accept(Longs.toByteArray(this.timestamp.getEpochSecond()));
+        dataConsumer.acceptLong(this.salt);
+        dataConsumer.acceptLong(this.timestamp.getEpochSecond());
         final byte[] contentData = this.content.getBytes(StandardCharsets.UTF_8);
-        dataConsumer.accept(Ints.toByteArray(contentData.length));
+        dataConsumer.acceptInt(contentData.length);
         dataConsumer.accept(contentData);
 
-        dataConsumer.accept(Ints.toByteArray(this.lastSeenMessages.length));
+        dataConsumer.acceptInt(this.lastSeenMessages.length);
         for (PlayerMessageSignature messageSignatureData : this.lastSeenMessages) {
             dataConsumer.accept(messageSignatureData.signatureBytes());
         }
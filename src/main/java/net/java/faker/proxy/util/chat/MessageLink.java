@@ -41,7 +41,7 @@ public class MessageLink {
     public void update(final DataConsumer dataConsumer) {
         dataConsumer.accept(this.sender);
         dataConsumer.accept(this.sessionId);
-        dataConsumer.accept(Ints.toByteArray(this.index));
+        dataConsumer.acceptInt(this.index);
     }
 
     public MessageLink next() {
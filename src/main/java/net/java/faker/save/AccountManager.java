@@ -19,8 +19,6 @@
 package net.java.faker.save;
 
 import com.google.gson.*;
-import com.google.gson.internal.Streams;
-import com.google.gson.stream.JsonWriter;
 import net.java.faker.auth.Account;
 import net.java.faker.auth.MicrosoftAccount;
 import net.java.faker.util.logging.Logger;
@@ -31,39 +29,63 @@ import java.io.*;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class AccountManager {
     private final File file;
+    private final WriteBehindFile writer;
+    private final CompletableFuture<Void> loaded = new CompletableFuture<>();
     List<Account> accounts = new ArrayList<>();
 
     public AccountManager(File file) {
         this.file = file;
+        this.writer = new WriteBehindFile("accounts", file);
 
-        if (file.exists()) {
-            try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-                JsonElement json = JsonParser.parseReader(reader);
-                if (json instanceof JsonArray array) {
-                    for (JsonElement e : array) {
-                        if (e instanceof JsonObject serializedSession) {
-                            try {
-                                StepFullJavaSession.FullJavaSession loadedSession = MinecraftAuth.JAVA_DEVICE_CODE_LOGIN.fromJson(serializedSession);
-                                MicrosoftAccount microsoftAccount = new MicrosoftAccount(loadedSession);
-                                this.accounts.add(microsoftAccount);
-                            } catch (Exception ex) {
-                                Logger.error("Failed to parse account " + ex.getMessage());
-                            }
+        //parsing goes through MinecraftAuth which is slow to load, so it runs next to the window setup
+        Thread loader = new Thread(this::load, "account-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    private void load() {
+        try {
+            if (file.exists()) {
+                try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+                    JsonElement json = JsonParser.parseReader(reader);
+                    if (json instanceof JsonArray array) {
+                        for (JsonElement e : array) {
+                            if (e instanceof JsonObject serializedSession) {
+                                try {
+                                    StepFullJavaSession.FullJavaSession loadedSession = MinecraftAuth.JAVA_DEVICE_CODE_LOGIN.fromJson(serializedSession);
+                                    MicrosoftAccount microsoftAccount = new MicrosoftAccount(loadedSession);
+                                    this.accounts.add(microsoftAccount);
+                                } catch (Exception ex) {
+                                    Logger.error("Failed to parse account " + ex.getMessage());
+                                }
 
+                            }
                         }
                     }
+                } catch (Exception e) {
+                    Logger.error("Failed to parse accounts " + e.getMessage());
                 }
-            } catch (Exception e) {
-                Logger.error("Failed to parse accounts " + e.getMessage());
             }
+        } finally {
+            this.loaded.complete(null);
         }
+    }
 
+    //blocks until the file is parsed, only for startup and headless paths. the ui uses whenLoaded
+    public void awaitLoaded() {
+        this.loaded.join();
+    }
+
+    public void whenLoaded(Runnable runnable) {
+        this.loaded.thenRun(runnable);
     }
 
     public void save() {
+        this.awaitLoaded();
         JsonArray array = new JsonArray();
         for (Account a : this.accounts) {
             if (a instanceof MicrosoftAccount microsoftAccount) {
@@ -72,36 +94,33 @@ public class AccountManager {
             }
         }
         if (array.isEmpty()) {
-            if (file.exists() && !file.delete()) {
-                Logger.error("Failed to delete accounts");
-            }
+            this.writer.delete();
         } else {
-            try {
-                BufferedWriter writer = new BufferedWriter(new FileWriter(file));
-                JsonWriter jsonWriter = new JsonWriter(writer);
-                jsonWriter.setStrictness(Strictness.LENIENT);
-                Streams.write(array, jsonWriter);
-                writer.close();
-            } catch (Exception e) {
-                Logger.error("Failed to save accounts " + e.getMessage());
-            }
+            this.writer.write(WriteBehindFile.toJson(array));
         }
     }
 
     public void removeAccount(Account account) {
+        this.awaitLoaded();
         this.accounts.remove(account);
     }
 
     public void addAccount(Account account) {
+        this.awaitLoaded();
         this.accounts.add(account);
     }
 
     public void addAccount(int index, Account account) {
+        this.awaitLoaded();
         this.accounts.add(index, account);
     }
 
 
+    //empty until loaded so the event dispatch thread never waits on MinecraftAuth
     public List<Account> getAccounts() {
+        if (!this.loaded.isDone()) {
+            return Collections.emptyList();
+        }
         return Collections.unmodifiableList(this.accounts);
     }
 
@@ -19,8 +19,6 @@
 package net.java.faker.save;
 
 import com.google.gson.*;
-import com.google.gson.internal.Streams;
-import com.google.gson.stream.JsonWriter;
 import net.java.faker.util.logging.Logger;
 import net.raphimc.netminecraft.util.MinecraftServerAddress;
 
@@ -53,9 +51,11 @@ public class Config {
     private InetSocketAddress targetHandshakeAddress = setTargetHandshakeAddress((String) null);
     private InetSocketAddress targetAddress;
     private final File file;
+    private final WriteBehindFile writer;
 
     public Config(File file) {
         this.file = file;
+        this.writer = new WriteBehindFile("config", file);
         for (Value value : this.values) {
             value.setDefault();
         }
@@ -83,19 +83,9 @@ public class Config {
             }
         }
         if (json.isEmpty()) {
-            if (file.exists() && !file.delete()) {
-                Logger.error("Failed to delete config");
-            }
+            this.writer.delete();
         } else {
-            try {
-                BufferedWriter writer = new BufferedWriter(new FileWriter(file));
-                JsonWriter jsonWriter = new JsonWriter(writer);
-                jsonWriter.setStrictness(Strictness.LENIENT);
-                Streams.write(json, jsonWriter);
-                writer.close();
-            } catch (Exception e) {
-                Logger.error("Failed to save config " + e.getMessage());
-            }
+            this.writer.write(WriteBehindFile.toJson(json));
         }
     }
 
@@ -0,0 +1,148 @@
+/*
+ * This file is part of faker - https://github.com/o1seth/faker
+ * Copyright (C) 2024 o1seth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.java.faker.save;
+
+import com.google.gson.JsonElement;
+import com.google.gson.Strictness;
+import com.google.gson.internal.Streams;
+import com.google.gson.stream.JsonWriter;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import net.java.faker.util.logging.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+//callers serialize and hand the text or bytes over, a background thread writes it after a short delay.
+//callers with large state hand over a supplier instead, it is called on the save thread once the delay is over.
+//saves within the delay are coalesced, unchanged content is not written, files are replaced via temp file and rename
+public class WriteBehindFile {
+    private static final long DELAY_MILLIS = Long.getLong("faker.save.delayMillis", 500);
+    //same charset the readers use
+    private static final Charset CHARSET = Charset.defaultCharset();
+    private static final byte[] DELETE = new byte[0];
+    private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(new DefaultThreadFactory("save-writer", true));
+
+    private final String name;
+    private final File file;
+    private final AtomicReference<Supplier<byte[]>> pending = new AtomicReference<>();
+    private byte[] written;
+
+    public WriteBehindFile(String name, File file) {
+        this.name = name;
+        this.file = file;
+        if (file.isFile()) {
+            try {
+                this.written = Files.readAllBytes(file.toPath());
+            } catch (IOException ignored) {
+            }
+        } else {
+            this.written = DELETE;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "save-writer-" + name + "-shutdown"));
+    }
+
+    public static String toJson(JsonElement json) {
+        StringWriter writer = new StringWriter();
+        try {
+            JsonWriter jsonWriter = new JsonWriter(writer);
+            jsonWriter.setStrictness(Strictness.LENIENT);
+            Streams.write(json, jsonWriter);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return writer.toString();
+    }
+
+    public File getFile() {
+        return this.file;
+    }
+
+    public void write(String content) {
+        this.write(content.getBytes(CHARSET));
+    }
+
+    public void write(byte[] content) {
+        this.write(() -> content);
+    }
+
+    public void write(Supplier<byte[]> content) {
+        if (this.pending.getAndSet(content) == null) {
+            EXECUTOR.schedule(this::flush, DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public void delete() {
+        this.write(DELETE);
+    }
+
+    public synchronized void flush() {
+        Supplier<byte[]> supplier = this.pending.getAndSet(null);
+        if (supplier == null) {
+            return;
+        }
+        try {
+            byte[] content = supplier.get();
+            if (this.isWritten(content)) {
+                return;
+            }
+            if (content == DELETE) {
+                Files.deleteIfExists(this.file.toPath());
+            } else {
+                File tmp = new File(this.file.getPath() + ".tmp");
+                try (FileChannel channel = FileChannel.open(tmp.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                    ByteBuffer buffer = ByteBuffer.wrap(content);
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    channel.force(true);
+                }
+                try {
+                    Files.move(tmp.toPath(), this.file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tmp.toPath(), this.file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            this.written = content;
+        } catch (Exception e) {
+            Logger.error("Failed to save " + this.name + " " + e.getMessage());
+        }
+    }
+
+    private boolean isWritten(byte[] content) {
+        if (content == DELETE || this.written == DELETE) {
+            return content == this.written;
+        }
+        return this.written != null && Arrays.equals(content, this.written);
+    }
+}
@@ -38,58 +38,85 @@ import java.util.stream.Stream;
 
 public class I18n {
     private static final String DEFAULT_LOCALE = "en_US";
-    private static Map<String, Properties> LOCALES = new LinkedHashMap<>();
+    private static final String LANG_PATH = "assets/faker/lang";
+    //only the default and the active locale are read at startup, the rest when the language list is needed
+    private static volatile Map<String, Properties> LOCALES = new LinkedHashMap<>();
+    private static boolean allLoaded;
     private static String currentLocale;
 
     static {
-        try {
-            Map<Path, byte[]> files = getFilesInDirectory("assets/faker/lang");
-            if (files != null) {
-                for (Map.Entry<Path, byte[]> entry : files.entrySet()) {
-                    final Properties properties = new Properties();
-                    properties.load(new InputStreamReader(new ByteArrayInputStream(entry.getValue()), StandardCharsets.UTF_8));
-                    LOCALES.put(entry.getKey().getFileName().toString().replace(".properties", ""), properties);
-                }
-            } else {
-                Logger.error("Can't find translation directory, try to load en_US...");
-                final Properties properties = new Properties();
-                InputStream is = I18n.class.getResourceAsStream("/assets/faker/lang/en_US.properties");
-                if (is == null) {
-                    throw new RuntimeException("Can't find any translations!");
-                }
-                properties.load(new InputStreamReader(is, StandardCharsets.UTF_8));
-                LOCALES.put("en_US", properties);
-            }
-        } catch (Throwable e) {
-            throw new RuntimeException("Failed to load translations", e);
+        if (loadLocale(DEFAULT_LOCALE) == null) {
+            throw new RuntimeException("Can't find any translations!");
         }
-        LOCALES = LOCALES.entrySet().stream()
-                .sorted(Comparator.comparing(e -> e.getValue().getProperty("language.name")))
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (oldValue, newValue) -> newValue, LinkedHashMap::new));
-
         currentLocale = Proxy.getConfig().locale.get();
-        if (currentLocale == null || !LOCALES.containsKey(currentLocale)) {
+        if (currentLocale == null || loadLocale(currentLocale) == null) {
             final String systemLocale = Locale.getDefault().getLanguage() + '_' + Locale.getDefault().getCountry();
-            if (LOCALES.containsKey(systemLocale)) {
+            if (loadLocale(systemLocale) != null) {
                 currentLocale = systemLocale;
             } else {
-                for (Map.Entry<String, Properties> entry : LOCALES.entrySet()) {
-                    if (entry.getKey().startsWith(Locale.getDefault().getLanguage() + '_')) {
-                        currentLocale = entry.getKey();
+                currentLocale = null;
+                for (String locale : getAvailableLocales()) {
+                    if (locale.startsWith(Locale.getDefault().getLanguage() + '_')) {
+                        currentLocale = locale;
                         break;
                     }
                 }
             }
         }
-        for (Map.Entry<String, Properties> locale : LOCALES.entrySet()) {
-            locale.getValue().entrySet().removeIf(line -> line.getValue().toString().isEmpty());
+    }
+
+    private static synchronized Properties loadLocale(final String locale) {
+        Properties properties = LOCALES.get(locale);
+        if (properties != null || allLoaded) {
+            return properties;
+        }
+        try (InputStream is = I18n.class.getClassLoader().getResourceAsStream(LANG_PATH + "/" + locale + ".properties")) {
+            if (is == null) {
+                return null;
+            }
+            properties = readLocale(is.readAllBytes());
+        } catch (IOException e) {
+            Logger.error("Failed to load translation " + locale, e);
+            return null;
+        }
+        LOCALES.put(locale, properties);
+        return properties;
+    }
+
+    private static Properties readLocale(byte[] data) throws IOException {
+        final Properties properties = new Properties();
+        properties.load(new InputStreamReader(new ByteArrayInputStream(data), StandardCharsets.UTF_8));
+        properties.entrySet().removeIf(line -> line.getValue().toString().isEmpty());
+        Properties defaults = LOCALES.get(DEFAULT_LOCALE);
+        final int totalTranslation = defaults == null ? properties.size() : defaults.size();
+        final float percentage = (float) properties.size() / totalTranslation * 100;
+        properties.put("language.completion", (int) Math.floor(percentage) + "%");
+        return properties;
+    }
+
+    private static synchronized void loadAll() {
+        if (allLoaded) {
+            return;
         }
-        final int totalTranslation = LOCALES.get(DEFAULT_LOCALE).size();
-        for (Properties properties : LOCALES.values()) {
-            final int translated = properties.size();
-            final float percentage = (float) translated / totalTranslation * 100;
-            properties.put("language.completion", (int) Math.floor(percentage) + "%");
+        try {
+            Map<Path, byte[]> files = getFilesInDirectory(LANG_PATH);
+            if (files != null) {
+                for (Map.Entry<Path, byte[]> entry : files.entrySet()) {
+                    String locale = entry.getKey().getFileName().toString().replace(".properties", "");
+                    if (!LOCALES.containsKey(locale)) {
+                        LOCALES.put(locale, readLocale(entry.getValue()));
+                    }
+                }
+            } else {
+                Logger.error("Can't find translation directory, only loaded translations are available");
+            }
+        } catch (Throwable e) {
+            Logger.error("Failed to load translations", e);
         }
+        LOCALES = LOCALES.entrySet().stream()
+                .sorted(Comparator.comparing(e -> e.getValue().getProperty("language.name")))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (oldValue, newValue) -> newValue, LinkedHashMap::new));
+        allLoaded = true;
     }
 
     private static class KeyAndConsumer {
@@ -182,15 +209,15 @@ public class I18n {
         return String.format(getSpecific(currentLocale, key), (Object[]) args);
     }
 
-    public static String getSpecific(final String locale, final String key) {
-
-        Properties properties = LOCALES.get(locale);
+    public static synchronized String getSpecific(final String locale, final String key) {
+        Properties defaults = LOCALES.get(DEFAULT_LOCALE);
+        Properties properties = locale == null ? null : loadLocale(locale);
         if (properties == null) {
-            properties = LOCALES.get(DEFAULT_LOCALE);
+            properties = defaults;
         }
         String value = properties.getProperty(key);
         if (value == null) {
-            value = LOCALES.get(DEFAULT_LOCALE).getProperty(key);
+            value = defaults.getProperty(key);
         }
         if (value == null) {
             return "Missing translation for key: " + key;
@@ -208,7 +235,8 @@ public class I18n {
         Proxy.getConfig().save();
     }
 
-    public static Collection<String> getAvailableLocales() {
+    public static synchronized Collection<String> getAvailableLocales() {
+        loadAll();
         return LOCALES.keySet();
     }
 
@@ -27,6 +27,7 @@ public abstract class UITab {
     private final String translationKey;
     protected final JPanel contentPane;
     private int index;
+    private boolean initialized;
     JTabbedPane owner;
 
     public UITab(final Window window, final String name) {
@@ -36,7 +37,21 @@ public abstract class UITab {
         this.contentPane = new JPanel();
 
         this.contentPane.setLayout(null);
+    }
+
+    //tabs build their components on first use, see Window for when that happens
+    public void ensureInitialized() {
+        if (this.initialized) {
+            return;
+        }
+        this.initialized = true;
         this.init(this.contentPane);
+        this.contentPane.revalidate();
+        this.contentPane.repaint();
+    }
+
+    public boolean isInitialized() {
+        return this.initialized;
     }
 
     public String getName() {
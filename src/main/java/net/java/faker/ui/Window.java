@@ -53,10 +53,12 @@ public class Window extends JFrame {
     public final GeneralTab generalTab = registerTab(new GeneralTab(this));
     public final AdvancedTab advancedTab = registerTab(new AdvancedTab(this));
     public final AccountsTab accountsTab = registerTab(new AccountsTab(this));
+    public final MetricsTab metricsTab = registerTab(new MetricsTab(this));
     public final UISettingsTab uiSettingsTab = registerTab(new UISettingsTab(this));
     public final DHCPTab dhcpTab;
     PopupMenu trayMenu;
     TrayIcon trayIcon;
+    private volatile long firstPaintTime;
 
     private Window() {
         if (Sys.isWindows()) {
@@ -72,12 +74,40 @@ public class Window extends JFrame {
         ToolTipManager.sharedInstance().setInitialDelay(100);
         ToolTipManager.sharedInstance().setDismissDelay(10_000);
 
+        //only the first tab is built before the window shows, the rest after the first paint
+        this.generalTab.ensureInitialized();
         SwingUtilities.updateComponentTreeUI(this);
 
         this.setVisible(true);
 
     }
 
+    @Override
+    public void paint(Graphics g) {
+        super.paint(g);
+        if (this.firstPaintTime == 0) {
+            this.firstPaintTime = System.currentTimeMillis();
+            ProcessHandle.current().info().startInstant().ifPresent(start -> Logger.info("First paint after " + (this.firstPaintTime - start.toEpochMilli()) + " ms"));
+            SwingUtilities.invokeLater(this::initNextTab);
+        }
+    }
+
+    public long getFirstPaintTime() {
+        return this.firstPaintTime;
+    }
+
+    //one tab per event so input stays responsive while the remaining tabs are built
+    private void initNextTab() {
+        for (UITab tab : this.tabs) {
+            if (!tab.isInitialized()) {
+                tab.ensureInitialized();
+                SwingUtilities.invokeLater(this::initNextTab);
+                return;
+            }
+        }
+        Proxy.startupComplete();
+    }
+
     public void hideTray() {
         if (this.trayIcon != null) {
             SystemTray tray = SystemTray.getSystemTray();
@@ -156,7 +186,9 @@ public class Window extends JFrame {
             @Override
             public void windowClosing(WindowEvent e) {
                 generalTab.applyGuiState();
-                advancedTab.applyGuiState();
+                if (advancedTab.isInitialized()) {
+                    advancedTab.applyGuiState();
+                }
                 Proxy.getConfig().save();
                 if (!Proxy.isStarted() && !Dhcp.isStarted()) {
                     System.exit(0);
@@ -193,8 +225,10 @@ public class Window extends JFrame {
 
         this.contentPane.addChangeListener(e -> {
             int selectedIndex = contentPane.getSelectedIndex();
-            if (selectedIndex >= 0 && selectedIndex < Window.this.tabs.size())
+            if (selectedIndex >= 0 && selectedIndex < Window.this.tabs.size()) {
+                Window.this.tabs.get(selectedIndex).ensureInitialized();
                 Window.this.tabs.get(selectedIndex).onTabOpened();
+            }
         });
     }
 
@@ -18,6 +18,8 @@
 
 package net.java.faker.ui.elements;
 
+import net.java.faker.Proxy;
+import net.java.faker.proxy.event.NetworkInterfacesChangeEvent;
 import net.java.faker.ui.Window;
 import net.java.faker.util.network.NetworkInterface;
 import net.java.faker.util.network.NetworkUtil;
@@ -56,6 +58,10 @@ public class NetworkAdapterComboBox extends JComboBox<NetworkInterface> {
             }
         };
         addActionListener(selectListener);
+        Proxy.getEventBus().subscribe(NetworkInterfacesChangeEvent.class, SwingUtilities::invokeLater, event -> {
+            lastFillTime = 0;
+            fillAdapters(null);
+        });
     }
 
     public void setValueCanBeNull(boolean valueCanBeNull) {
@@ -189,7 +189,7 @@ public class AccountsTab extends UITab {
         contentPane.setLayout(new BorderLayout());
         contentPane.add(body, BorderLayout.CENTER);
 
-        Proxy.getAccountManager().getAccounts().forEach(this::addAccount);
+        Proxy.getAccountManager().whenLoaded(() -> SwingUtilities.invokeLater(() -> Proxy.getAccountManager().getAccounts().forEach(this::addAccount)));
         DefaultListModel<Account> model = (DefaultListModel<Account>) this.accountsList.getModel();
 //        if (!model.isEmpty()) this.markSelected(0);
     }
@@ -22,6 +22,7 @@ import net.java.faker.Proxy;
 import net.java.faker.WinRedirect;
 import net.java.faker.auth.Account;
 import net.java.faker.proxy.event.DisconnectEvent;
+import net.java.faker.proxy.event.EventBus;
 import net.java.faker.proxy.event.LoginEvent;
 import net.java.faker.proxy.event.RedirectStateChangeEvent;
 import net.java.faker.proxy.event.SwapEvent;
@@ -39,7 +40,6 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.net.URL;
-import java.util.ArrayList;
 
 import static net.java.faker.ui.Window.BODY_BLOCK_PADDING;
 import static net.java.faker.ui.Window.BORDER_PADDING;
@@ -71,6 +71,7 @@ public class GeneralTab extends UITab {
     JTextField serverAddress;
 
     JComboBox<Account> accounts;
+    boolean accountsLoaded;
     JLabel stateLabel;
     JButton startButton;
     JButton pauseButton;
@@ -137,10 +138,8 @@ public class GeneralTab extends UITab {
             I18n.link(minecraftAccountLabel, "tab.general.minecraft_account.label");
             GBC.create(body).grid(0, gridy++).insets(BODY_BLOCK_PADDING, BORDER_PADDING, 0, 0).anchor(GBC.NORTHWEST).add(minecraftAccountLabel);
 
-            java.util.List<Account> accountList = new ArrayList<>();
-            accountList.add(null);
-            accountList.addAll(Proxy.getAccountManager().getAccounts());
-            accounts = new JComboBox<>(accountList.toArray(new Account[0]));
+            //filled once the account manager has parsed the saved sessions
+            accounts = new JComboBox<>(new Account[]{null});
 
             accounts.setRenderer(new DefaultListCellRenderer() {
                 @Override
@@ -155,14 +154,7 @@ public class GeneralTab extends UITab {
                     return component;
                 }
             });
-            if (Proxy.getConfig().account.get() != null) {
-                for (Account account : Proxy.getAccountManager().getAccounts()) {
-                    if (Proxy.getConfig().account.get().equals(account.getName())) {
-                        this.accounts.setSelectedItem(account);
-                        break;
-                    }
-                }
-            }
+            Proxy.getAccountManager().whenLoaded(() -> SwingUtilities.invokeLater(this::onAccountsLoaded));
             GBC.create(body).grid(0, gridy++).weightx(1).insets(0, BORDER_PADDING, 0, BORDER_PADDING).fill(GBC.HORIZONTAL).add(accounts);
 
             GBC.create(body).grid(0, gridy++).weightx(1).insets(0, BORDER_PADDING, 0, BORDER_PADDING).fill(GBC.HORIZONTAL).add(Box.createVerticalStrut(10));
@@ -177,8 +169,9 @@ public class GeneralTab extends UITab {
 
             swap = new JButton(swapIcon);
             swap.addActionListener(e -> {
-                if (Proxy.dualConnection != null) {
-                    Proxy.dualConnection.swapController();
+                //the panel follows the first session, other sessions swap on their own
+                if (leftConnection != null && leftConnection.dualConnection != null) {
+                    leftConnection.dualConnection.swapController();
                 }
             });
 
@@ -207,54 +200,65 @@ public class GeneralTab extends UITab {
             devices.add(swap);
             devices.add(rightPanel);
             GBC.create(body).grid(0, gridy++).weightx(1).insets(0, BORDER_PADDING, 0, BORDER_PADDING).fill(GBC.HORIZONTAL).add(devices);
-            Proxy.registerEvent(e -> {
-                SwingUtilities.invokeLater(() -> {
-                    if (e instanceof SwapEvent swapEvent) {
-
-                        if (swapEvent.getNewController() == leftConnection) {
-                            leftDevice.setIcon(activeDeviceIcon);
-                            rightDevice.setIcon(inactiveDeviceIcon);
-                        } else if (swapEvent.getNewController() == rightConnection) {
-                            rightDevice.setIcon(activeDeviceIcon);
-                            leftDevice.setIcon(inactiveDeviceIcon);
-                        } else {
-                            Logger.u_warn("Shouldn't happen", swapEvent.getNewController(), "Unknown swap controller");
-                        }
-                    } else if (e instanceof LoginEvent login) {
-                        if (leftConnection == null) {
-                            leftConnection = login.getConnection();
-                            leftPanel.setVisible(true);
-                            leftStatus.setText(leftConnection.getRealSrcAddress().getAddress().getHostAddress());
-                            leftDevice.setIcon(activeDeviceIcon);
-                            rightDevice.setIcon(inactiveDeviceIcon);
-                        } else if (rightConnection == null) {
-                            rightConnection = login.getConnection();
-                            swap.setVisible(true);
-                            rightPanel.setVisible(true);
-                            rightStatus.setText(rightConnection.getRealSrcAddress().getAddress().getHostAddress());
-                        }
-                    } else if (e instanceof DisconnectEvent disconnect) {
-                        if (disconnect.getConnection() == rightConnection) {
-                            rightConnection = null;
-                            rightPanel.setVisible(false);
-                            swap.setVisible(false);
-                            rightStatus.setText("");
-                        } else if (disconnect.getConnection() == leftConnection) {
-                            leftConnection = null;
-                            leftPanel.setVisible(false);
-                            swap.setVisible(false);
-                            leftStatus.setText("");
-                        }
-                    }
-
-
-                });
-
+            EventBus eventBus = Proxy.getEventBus();
+            eventBus.subscribe(SwapEvent.class, SwingUtilities::invokeLater, swapEvent -> {
+                if (leftConnection == null || swapEvent.getNewController().dualConnection != leftConnection.dualConnection) {
+                    return;
+                }
+                if (swapEvent.getNewController() == leftConnection) {
+                    leftDevice.setIcon(activeDeviceIcon);
+                    rightDevice.setIcon(inactiveDeviceIcon);
+                } else if (swapEvent.getNewController() == rightConnection) {
+                    rightDevice.setIcon(activeDeviceIcon);
+                    leftDevice.setIcon(inactiveDeviceIcon);
+                } else {
+                    Logger.u_warn("Shouldn't happen", swapEvent.getNewController(), "Unknown swap controller");
+                }
+            });
+            eventBus.subscribe(LoginEvent.class, SwingUtilities::invokeLater, login -> {
+                if (leftConnection == null) {
+                    leftConnection = login.getConnection();
+                    leftPanel.setVisible(true);
+                    leftStatus.setText(leftConnection.getRealSrcAddress().getAddress().getHostAddress());
+                    leftDevice.setIcon(activeDeviceIcon);
+                    rightDevice.setIcon(inactiveDeviceIcon);
+                } else if (rightConnection == null && login.getDualConnection() == leftConnection.dualConnection) {
+                    rightConnection = login.getConnection();
+                    swap.setVisible(true);
+                    rightPanel.setVisible(true);
+                    rightStatus.setText(rightConnection.getRealSrcAddress().getAddress().getHostAddress());
+                }
+            });
+            eventBus.subscribe(DisconnectEvent.class, SwingUtilities::invokeLater, disconnect -> {
+                if (disconnect.getConnection() == rightConnection) {
+                    rightConnection = null;
+                    rightPanel.setVisible(false);
+                    swap.setVisible(false);
+                    rightStatus.setText("");
+                } else if (disconnect.getConnection() == leftConnection) {
+                    leftConnection = null;
+                    leftPanel.setVisible(false);
+                    swap.setVisible(false);
+                    leftStatus.setText("");
+                }
             });
         }
         parent.add(body, BorderLayout.CENTER);
     }
 
+    private void onAccountsLoaded() {
+        this.accountsLoaded = true;
+        this.updateAccounts();
+        if (this.accounts.getSelectedItem() == null && Proxy.getConfig().account.get() != null) {
+            for (Account account : Proxy.getAccountManager().getAccounts()) {
+                if (Proxy.getConfig().account.get().equals(account.getName())) {
+                    this.accounts.setSelectedItem(account);
+                    break;
+                }
+            }
+        }
+    }
+
     public void updateAccounts() {
         DefaultComboBoxModel<Account> model = (DefaultComboBoxModel<Account>) this.accounts.getModel();
         Account selected = (Account) this.accounts.getSelectedItem();
@@ -295,15 +299,13 @@ public class GeneralTab extends UITab {
                     Proxy.resumeRedirect();
                 }
             });
-            Proxy.registerEvent(event -> {
-                if (event instanceof RedirectStateChangeEvent changeEvent) {
-                    if (changeEvent.getState() == RedirectStateChangeEvent.State.PAUSED) {
-                        this.pauseButton.setText(I18n.get("tab.general.pause.resume"));
-                        this.pauseButton.setToolTipText(I18n.get("tab.general.pause.resume.tooltip"));
-                    } else {
-                        this.pauseButton.setText(I18n.get("tab.general.pause.suspend"));
-                        this.pauseButton.setToolTipText(I18n.get("tab.general.pause.suspend.tooltip"));
-                    }
+            Proxy.getEventBus().subscribe(RedirectStateChangeEvent.class, SwingUtilities::invokeLater, changeEvent -> {
+                if (changeEvent.getState() == RedirectStateChangeEvent.State.PAUSED) {
+                    this.pauseButton.setText(I18n.get("tab.general.pause.resume"));
+                    this.pauseButton.setToolTipText(I18n.get("tab.general.pause.resume.tooltip"));
+                } else {
+                    this.pauseButton.setText(I18n.get("tab.general.pause.suspend"));
+                    this.pauseButton.setToolTipText(I18n.get("tab.general.pause.suspend.tooltip"));
                 }
             });
             this.pauseButton.setEnabled(false);
@@ -332,6 +334,7 @@ public class GeneralTab extends UITab {
         this.serverAddress.setEnabled(state);
         this.accounts.setEnabled(state);
 
+        this.window.advancedTab.ensureInitialized();
         this.window.advancedTab.proxyOnlineMode.setEnabled(state);
 
         this.window.advancedTab.chatSigning.setEnabled(state);
@@ -448,6 +451,9 @@ public class GeneralTab extends UITab {
 
     public void applyGuiState() {
         Proxy.getConfig().setServerAddress(this.serverAddress.getText());
+        if (!this.accountsLoaded) {
+            return;
+        }
         if (this.accounts.getSelectedItem() instanceof Account account) {
             Proxy.getConfig().account.set(account.getName());
         } else {
@@ -0,0 +1,172 @@
+/*
+ * This file is part of faker - https://github.com/o1seth/faker
+ * Copyright (C) 2024 o1seth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.java.faker.ui.tab;
+
+import net.java.faker.proxy.metrics.ConnectionMetrics;
+import net.java.faker.proxy.metrics.Direction;
+import net.java.faker.proxy.metrics.MetricsRegistry;
+import net.java.faker.proxy.metrics.TrafficMetrics;
+import net.java.faker.ui.I18n;
+import net.java.faker.ui.UITab;
+import net.java.faker.ui.Window;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+
+import static net.java.faker.ui.Window.BORDER_PADDING;
+
+public class MetricsTab extends UITab {
+    private static final int REFRESH_INTERVAL = 1000;
+    private static final String[] CONNECTION_COLUMNS = {"name", "c2p", "p2c", "s2p", "p2s", "compression", "stalls", "stall_p99", "swaps", "swap_p99", "rtt_p50", "rtt_jitter_p99", "added_p99"};
+    private static final String[] PACKET_COLUMNS = {"direction", "packet_id", "packets", "bytes"};
+
+    DefaultTableModel connectionsModel;
+    DefaultTableModel packetsModel;
+    JTable connectionsTable;
+    JLabel totalsLabel;
+    Timer refreshTimer;
+    List<ConnectionMetrics> connections;
+
+    public MetricsTab(final Window frame) {
+        super(frame, "metrics");
+    }
+
+    @Override
+    protected void init(JPanel contentPane) {
+        contentPane.setLayout(new BorderLayout(BORDER_PADDING, BORDER_PADDING));
+        contentPane.setBorder(BorderFactory.createEmptyBorder(BORDER_PADDING, BORDER_PADDING, BORDER_PADDING, BORDER_PADDING));
+
+        this.connections = new ArrayList<>();
+        this.connectionsModel = createModel("tab.metrics.column.", CONNECTION_COLUMNS);
+        this.packetsModel = createModel("tab.metrics.column.", PACKET_COLUMNS);
+        this.connectionsTable = new JTable(this.connectionsModel);
+        this.connectionsTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        this.connectionsTable.getSelectionModel().addListSelectionListener(e -> {
+            if (!e.getValueIsAdjusting()) {
+                this.updatePackets();
+            }
+        });
+        JTable packetsTable = new JTable(this.packetsModel);
+        packetsTable.setAutoCreateRowSorter(true);
+
+        JSplitPane split = new JSplitPane(JSplitPane.VERTICAL_SPLIT, new JScrollPane(this.connectionsTable), new JScrollPane(packetsTable));
+        split.setResizeWeight(0.5);
+        contentPane.add(split, BorderLayout.CENTER);
+
+        this.totalsLabel = new JLabel();
+        contentPane.add(this.totalsLabel, BorderLayout.SOUTH);
+
+        this.refreshTimer = new Timer(REFRESH_INTERVAL, e -> {
+            //stop polling once the user switched to another tab
+            if (!this.contentPane.isShowing()) {
+                this.refreshTimer.stop();
+                return;
+            }
+            this.refresh();
+        });
+    }
+
+    @Override
+    protected void onTabOpened() {
+        this.refresh();
+        this.refreshTimer.start();
+    }
+
+    private static DefaultTableModel createModel(String prefix, String[] columns) {
+        String[] names = new String[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            names[i] = I18n.get(prefix + columns[i]);
+        }
+        return new DefaultTableModel(names, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+    }
+
+    private void refresh() {
+        ConnectionMetrics selected = this.getSelected();
+        this.connections = MetricsRegistry.getConnections();
+        this.connectionsModel.setRowCount(0);
+        for (ConnectionMetrics metrics : this.connections) {
+            this.connectionsModel.addRow(new Object[]{
+                    metrics.getName(),
+                    metrics.traffic(Direction.CLIENT_TO_PROXY).getPackets(),
+                    metrics.traffic(Direction.PROXY_TO_CLIENT).getPackets(),
+                    metrics.traffic(Direction.SERVER_TO_PROXY).getPackets(),
+                    metrics.traffic(Direction.PROXY_TO_SERVER).getPackets(),
+                    String.format("%.2f", metrics.traffic(Direction.SERVER_TO_PROXY).getCompressionRatio()),
+                    metrics.getAutoReadStalls(),
+                    formatMillis(metrics.getAutoReadStallTime().snapshot().getValueAtPercentile(99)),
+                    metrics.getSwaps(),
+                    formatMillis(metrics.getSwapTime().snapshot().getValueAtPercentile(99)),
+                    formatMillis(metrics.getRtt().getClientRtt().snapshot().getValueAtPercentile(50)),
+                    formatMillis(metrics.getRtt().getClientJitter().snapshot().getValueAtPercentile(99)),
+                    formatMillis(metrics.getRtt().getProxyAdded().snapshot().getValueAtPercentile(99))
+            });
+        }
+        int index = this.connections.indexOf(selected);
+        if (index >= 0) {
+            this.connectionsTable.setRowSelectionInterval(index, index);
+        }
+        ConnectionMetrics totals = MetricsRegistry.getTotals();
+        long packets = 0;
+        long bytes = 0;
+        for (Direction direction : Direction.values()) {
+            packets += totals.traffic(direction).getPackets();
+            bytes += totals.traffic(direction).getBytes();
+        }
+        this.totalsLabel.setText(I18n.get("tab.metrics.totals", String.valueOf(this.connections.size()), String.valueOf(packets), String.valueOf(bytes)));
+        this.updatePackets();
+    }
+
+    private void updatePackets() {
+        this.packetsModel.setRowCount(0);
+        ConnectionMetrics metrics = this.getSelected();
+        if (metrics == null) {
+            return;
+        }
+        for (Direction direction : Direction.values()) {
+            TrafficMetrics traffic = metrics.traffic(direction);
+            for (int id = 0; id < TrafficMetrics.MAX_PACKET_ID; id++) {
+                long packets = traffic.getPackets(id);
+                if (packets != 0) {
+                    this.packetsModel.addRow(new Object[]{direction.getLabel(), String.format("0x%02X", id), packets, traffic.getBytes(id)});
+                }
+            }
+        }
+    }
+
+    private ConnectionMetrics getSelected() {
+        int row = this.connectionsTable.getSelectedRow();
+        if (row < 0 || row >= this.connections.size()) {
+            return null;
+        }
+        return this.connections.get(row);
+    }
+
+    private static String formatMillis(long nanos) {
+        return String.format("%.2f ms", nanos / 1_000_000D);
+    }
+}
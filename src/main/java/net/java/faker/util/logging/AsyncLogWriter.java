@@ -0,0 +1,204 @@
+/*
+ * This file is part of faker - https://github.com/o1seth/faker
+ * Copyright (C) 2024 o1seth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.java.faker.util.logging;
+
+import io.netty.util.internal.PlatformDependent;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+//callers only copy the bytes into a bounded lock-free queue, console and file are written by a background thread.
+//if the writer can't keep up, new chunks are dropped and counted instead of blocking netty threads
+public class AsyncLogWriter extends OutputStream {
+    private static final int QUEUE_CAPACITY = 16384;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long MAX_FILE_SIZE = Long.getLong("faker.log.maxFileSize", 10L * 1024 * 1024);
+    private static final int MAX_FILES = Integer.getInteger("faker.log.maxFiles", 3);
+
+    private final String name;
+    private final PrintStream console;
+    private final File file;
+    private final Queue<byte[]> queue = PlatformDependent.newFixedMpscQueue(QUEUE_CAPACITY);
+    private final LongAdder dropped = new LongAdder();
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final Thread thread;
+    private volatile boolean waiting;
+    private long reportedDropped;
+    private FileChannel channel;
+    private long fileSize;
+
+    public AsyncLogWriter(final String name, final PrintStream console, final File file) {
+        this.name = name;
+        this.console = console;
+        this.file = file;
+        this.channel = this.open();
+        this.thread = new Thread(this::run, "log-writer-" + name);
+        this.thread.setDaemon(true);
+        this.thread.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::drain, "log-writer-" + name + "-shutdown"));
+    }
+
+    @Override
+    public void write(int b) {
+        this.enqueue(new byte[]{(byte) b});
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        if (len > 0) {
+            this.enqueue(Arrays.copyOfRange(b, off, off + len));
+        }
+    }
+
+    @Override
+    public void flush() {
+        //flushed by the writer thread as soon as the queue is empty
+    }
+
+    public long getDropped() {
+        return this.dropped.sum();
+    }
+
+    private void enqueue(byte[] chunk) {
+        if (!this.queue.offer(chunk)) {
+            this.dropped.increment();
+            return;
+        }
+        if (this.waiting) {
+            LockSupport.unpark(this.thread);
+        }
+    }
+
+    private void run() {
+        while (true) {
+            this.drain();
+            this.waiting = true;
+            if (this.queue.isEmpty()) {
+                LockSupport.park(this);
+            }
+            this.waiting = false;
+        }
+    }
+
+    private synchronized void drain() {
+        byte[] chunk;
+        while ((chunk = this.queue.poll()) != null) {
+            this.console.write(chunk, 0, chunk.length);
+            this.writeFile(chunk);
+        }
+        long dropped = this.dropped.sum();
+        if (dropped != this.reportedDropped) {
+            byte[] message = ("[" + this.name + "] dropped " + (dropped - this.reportedDropped) + " log writes\n").getBytes();
+            this.reportedDropped = dropped;
+            this.console.write(message, 0, message.length);
+            this.writeFile(message);
+        }
+        this.console.flush();
+        this.flushFile();
+    }
+
+    private void writeFile(byte[] chunk) {
+        if (this.channel == null) {
+            return;
+        }
+        if (this.fileSize + this.buffer.position() + chunk.length > MAX_FILE_SIZE && this.fileSize + this.buffer.position() > 0) {
+            this.flushFile();
+            this.rotate();
+            if (this.channel == null) {
+                return;
+            }
+        }
+        if (chunk.length > this.buffer.remaining()) {
+            this.flushFile();
+        }
+        if (chunk.length > this.buffer.capacity()) {
+            this.writeFully(ByteBuffer.wrap(chunk));
+        } else {
+            this.buffer.put(chunk);
+        }
+    }
+
+    private void flushFile() {
+        if (this.channel == null || this.buffer.position() == 0) {
+            return;
+        }
+        this.buffer.flip();
+        this.writeFully(this.buffer);
+        this.buffer.clear();
+    }
+
+    private void writeFully(ByteBuffer data) {
+        try {
+            while (data.hasRemaining()) {
+                this.fileSize += this.channel.write(data);
+            }
+        } catch (IOException e) {
+            e.printStackTrace(this.console);
+            this.closeChannel();
+        }
+    }
+
+    //std.log -> std.log.1 -> std.log.2 ...
+    private void rotate() {
+        this.closeChannel();
+        try {
+            for (int i = MAX_FILES - 1; i >= 1; i--) {
+                File from = i == 1 ? this.file : new File(this.file.getPath() + "." + (i - 1));
+                if (from.exists()) {
+                    Files.move(from.toPath(), new File(this.file.getPath() + "." + i).toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace(this.console);
+        }
+        this.channel = this.open();
+    }
+
+    private FileChannel open() {
+        this.fileSize = 0;
+        try {
+            return FileChannel.open(this.file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (Exception ignored) {
+            return null;
+        }
+    }
+
+    private void closeChannel() {
+        try {
+            if (this.channel != null) {
+                this.channel.close();
+            }
+        } catch (IOException ignored) {
+        }
+        this.channel = null;
+        this.buffer.clear();
+    }
+}
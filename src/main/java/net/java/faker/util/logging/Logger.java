@@ -37,8 +37,10 @@ public class Logger {
 
     public static final PrintStream SYSOUT = System.out;
     public static final PrintStream SYSERR = System.err;
-    private static LoggerFileStream out = new LoggerFileStream("STDOUT", SYSOUT, new File(Proxy.getFakerDirectory(), "std.log"));
-    private static LoggerFileStream err = new LoggerFileStream("STDERR", SYSERR, new File(Proxy.getFakerDirectory(), "err.log"));
+    private static final AsyncLogWriter outWriter = new AsyncLogWriter("STDOUT", SYSOUT, new File(Proxy.getFakerDirectory(), "std.log"));
+    private static final AsyncLogWriter errWriter = new AsyncLogWriter("STDERR", SYSERR, new File(Proxy.getFakerDirectory(), "err.log"));
+    private static final PrintStream out = new PrintStream(outWriter, false);
+    private static final PrintStream err = new PrintStream(errWriter, false);
 
     public static void setup() {
         System.setErr(err);
@@ -46,9 +48,11 @@ public class Logger {
     }
 
     public static void raw(Object msg) {
-        out.print(msg);
-        out.print('\n');
-        out.flush();
+        out.print(msg + "\n");
+    }
+
+    public static long getDroppedWrites() {
+        return outWriter.getDropped() + errWriter.getDropped();
     }
 
     public static void u_info(final String title, final String msg) {
@@ -68,6 +72,9 @@ public class Logger {
     }
 
     public static void u_log(final Level level, final String title, final ProxyConnection proxyConnection, final String msg) {
+        if (!LOGGER.isEnabledForLevel(level)) {
+            return;
+        }
         if (proxyConnection == null) {
             u_log(level, title, null, null, msg);
             return;
@@ -78,12 +85,17 @@ public class Logger {
     }
 
     public static void u_log(final Level level, final String title, final SocketAddress address, final GameProfile gameProfile, final String msg) {
+        if (!LOGGER.isEnabledForLevel(level)) {
+            return;
+        }
         String message = "[" + title.toUpperCase(Locale.ROOT) + "] (" + address + " | " + (gameProfile != null ? gameProfile.getName() : "null") + ") " + msg;
         LOGGER.atLevel(level).log(message);
     }
 
     public static void debug(Object msg) {
-        LOGGER.debug(msg.toString());
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug(msg.toString());
+        }
     }
 
     public static void info(Object msg) {
@@ -0,0 +1,86 @@
+/*
+ * This file is part of faker - https://github.com/o1seth/faker
+ * Copyright (C) 2024 o1seth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.java.faker.util.network;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.InterfaceAddress;
+import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.List;
+
+//subnets of the local ipv4 addresses, part of the NetworkInventory snapshot, so classifying a connection is a trie lookup
+public class LocalSubnets {
+
+    public static Subnet lookup(Inet4Address address) {
+        return NetworkInventory.get().getSubnet(address);
+    }
+
+    static SubnetIndex<Subnet> build(List<java.net.NetworkInterface> interfaces, InetAddress internetAddress) throws SocketException {
+        List<Subnet> subnets = new ArrayList<>();
+        for (java.net.NetworkInterface ni : interfaces) {
+            if (!ni.isUp()) {
+                continue;
+            }
+            for (InterfaceAddress interfaceAddress : ni.getInterfaceAddresses()) {
+                if (interfaceAddress.getAddress() instanceof Inet4Address ipv4) {
+                    subnets.add(new Subnet(ni, ipv4, interfaceAddress.getNetworkPrefixLength(), ipv4.equals(internetAddress)));
+                }
+            }
+        }
+        //internet subnets first, they win if another interface is in the same network
+        subnets.sort((a, b) -> Boolean.compare(b.internet, a.internet));
+        SubnetIndex<Subnet> index = new SubnetIndex<>();
+        for (Subnet subnet : subnets) {
+            index.add(SubnetIndex.getNetwork(NetworkUtil.getIntAddress(subnet.localAddress), subnet.prefix), subnet.prefix, subnet);
+        }
+        return index;
+    }
+
+    public static class Subnet {
+        private final java.net.NetworkInterface networkInterface;
+        private final Inet4Address localAddress;
+        private final int prefix;
+        private final boolean internet;
+
+        Subnet(java.net.NetworkInterface networkInterface, Inet4Address localAddress, int prefix, boolean internet) {
+            this.networkInterface = networkInterface;
+            this.localAddress = localAddress;
+            this.prefix = prefix;
+            this.internet = internet;
+        }
+
+        public java.net.NetworkInterface getNetworkInterface() {
+            return this.networkInterface;
+        }
+
+        public Inet4Address getLocalAddress() {
+            return this.localAddress;
+        }
+
+        public int getPrefix() {
+            return this.prefix;
+        }
+
+        public boolean isInternet() {
+            return this.internet;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * This file is part of faker - https://github.com/o1seth/faker
+ * Copyright (C) 2024 o1seth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.java.faker.util.network;
+
+import io.netty.util.concurrent.DefaultThreadFactory;
+import net.java.faker.Proxy;
+import net.java.faker.proxy.event.NetworkInterfacesChangeEvent;
+import net.java.faker.util.logging.Logger;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.InterfaceAddress;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+//one snapshot of the local network interfaces for every lookup, refreshed in background.
+//the cheap java enumeration runs every few seconds, the expensive part (ipconfig on windows)
+//only when the interfaces, their addresses or the internet address changed
+public class NetworkInventory {
+    private static final long REFRESH_INTERVAL_MILLIS = 5000;
+    private static volatile Snapshot snapshot;
+    private static ScheduledExecutorService refresher;
+
+    public static Snapshot get() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            current = refresh();
+        }
+        return current;
+    }
+
+    //e.g. after changing an interface address
+    public static void refreshAsync() {
+        startRefresher();
+        refresher.execute(NetworkInventory::refresh);
+    }
+
+    public static synchronized Snapshot refresh() {
+        startRefresher();
+        try {
+            List<java.net.NetworkInterface> javaInterfaces = Collections.list(java.net.NetworkInterface.getNetworkInterfaces());
+            InetAddress internetAddress = NetworkUtil.getLocalInternetAddress();
+            String signature = signature(javaInterfaces, internetAddress);
+            Snapshot previous = snapshot;
+            if (previous != null && previous.signature.equals(signature)) {
+                return previous;
+            }
+            Snapshot current = new Snapshot(signature, javaInterfaces, internetAddress, NetworkUtil.enumerateNetworkInterfaces());
+            snapshot = current;
+            if (previous != null) {
+                Proxy.event(new NetworkInterfacesChangeEvent(current));
+            }
+            return current;
+        } catch (Throwable e) {
+            Logger.error("Failed to refresh network interfaces", e);
+            if (snapshot == null) {
+                snapshot = new Snapshot("", Collections.emptyList(), null, Collections.emptyList());
+            }
+            return snapshot;
+        }
+    }
+
+    private static synchronized void startRefresher() {
+        if (refresher == null) {
+            refresher = Executors.newSingleThreadScheduledExecutor(new DefaultThreadFactory("network-inventory", true));
+            refresher.scheduleWithFixedDelay(NetworkInventory::refresh, REFRESH_INTERVAL_MILLIS, REFRESH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static String signature(List<java.net.NetworkInterface> javaInterfaces, InetAddress internetAddress) throws Exception {
+        StringBuilder sb = new StringBuilder(1024);
+        sb.append(internetAddress).append(';');
+        for (java.net.NetworkInterface ni : javaInterfaces) {
+            sb.append(ni.getIndex()).append(ni.getName()).append(ni.isUp()).append(Arrays.toString(ni.getHardwareAddress()));
+            for (InterfaceAddress interfaceAddress : ni.getInterfaceAddresses()) {
+                sb.append(interfaceAddress.getAddress()).append('/').append(interfaceAddress.getNetworkPrefixLength());
+            }
+            sb.append(';');
+        }
+        return sb.toString();
+    }
+
+    public static class Snapshot {
+        private final String signature;
+        private final List<NetworkInterface> interfaces;
+        private final NetworkInterface internetInterface;
+        private final InetAddress internetAddress;
+        private final Map<InetAddress, List<java.net.NetworkInterface>> byAddress = new HashMap<>();
+        private final Map<InetAddress, java.net.NetworkInterface> upByAddress = new HashMap<>();
+        private final SubnetIndex<LocalSubnets.Subnet> subnets;
+
+        Snapshot(String signature, List<java.net.NetworkInterface> javaInterfaces, InetAddress internetAddress, List<NetworkInterface> interfaces) throws Exception {
+            this.signature = signature;
+            this.interfaces = Collections.unmodifiableList(interfaces);
+            this.internetAddress = internetAddress;
+            NetworkInterface internetInterface = null;
+            for (NetworkInterface ni : interfaces) {
+                if (ni.hasInternetAccess()) {
+                    internetInterface = ni;
+                    break;
+                }
+            }
+            this.internetInterface = internetInterface;
+            for (java.net.NetworkInterface ni : javaInterfaces) {
+                boolean up = ni.isUp();
+                for (InterfaceAddress interfaceAddress : ni.getInterfaceAddresses()) {
+                    this.byAddress.computeIfAbsent(interfaceAddress.getAddress(), k -> new ArrayList<>(1)).add(ni);
+                    if (up) {
+                        this.upByAddress.putIfAbsent(interfaceAddress.getAddress(), ni);
+                    }
+                }
+            }
+            this.subnets = LocalSubnets.build(javaInterfaces, internetAddress);
+        }
+
+        public List<NetworkInterface> getInterfaces() {
+            return this.interfaces;
+        }
+
+        public NetworkInterface getInternetInterface() {
+            return this.internetInterface;
+        }
+
+        public InetAddress getInternetAddress() {
+            return this.internetAddress;
+        }
+
+        public boolean hasAddress(InetAddress address, java.net.NetworkInterface except) {
+            List<java.net.NetworkInterface> owners = this.byAddress.get(address);
+            if (owners == null) {
+                return false;
+            }
+            for (java.net.NetworkInterface ni : owners) {
+                if (ni != except) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        //up interfaces only
+        public java.net.NetworkInterface getInterfaceByAddress(InetAddress address) {
+            return this.upByAddress.get(address);
+        }
+
+        public LocalSubnets.Subnet getSubnet(Inet4Address address) {
+            return this.subnets.lookup(NetworkUtil.getIntAddress(address));
+        }
+    }
+}
@@ -47,19 +47,7 @@ public class NetworkUtil {
 
     public static boolean localIpExists(String ip, java.net.NetworkInterface except) {
         try {
-            InetAddress address = InetAddress.getByName(ip);
-            Enumeration<java.net.NetworkInterface> enumeration = java.net.NetworkInterface.getNetworkInterfaces();
-            while (enumeration.hasMoreElements()) {
-                java.net.NetworkInterface ni = enumeration.nextElement();
-                if (ni == except) {
-                    continue;
-                }
-                for (InterfaceAddress interfaceAddress : ni.getInterfaceAddresses()) {
-                    if (interfaceAddress.getAddress().equals(address)) {
-                        return true;
-                    }
-                }
-            }
+            return NetworkInventory.get().hasAddress(InetAddress.getByName(ip), except);
         } catch (Exception ignored) {
 
         }
@@ -310,6 +298,11 @@ public class NetworkUtil {
 
     @Nonnull
     public static List<NetworkInterface> getNetworkInterfaces() {
+        return NetworkInventory.get().getInterfaces();
+    }
+
+    //up interfaces with hardware address, on windows with gateways, dns and dhcp from ipconfig
+    static List<NetworkInterface> enumerateNetworkInterfaces() {
         InetAddress localInternet = getLocalInternetAddress();
         List<NetworkInterface> interfaces = new ArrayList<>();
         try {
@@ -424,130 +417,33 @@ public class NetworkUtil {
 
     }
 
-    private static long lastInternetInterface;
-    private static NetworkInterface internetInterface;
-
     public static NetworkInterface getInternetInterface() {
-        if (System.currentTimeMillis() - lastInternetInterface > 10000 || internetInterface == null) {
-            lastInternetInterface = System.currentTimeMillis();
-        } else {
-            return internetInterface;
-        }
-        List<NetworkInterface> interfaces = getNetworkInterfaces();
-        for (NetworkInterface ni : interfaces) {
-            if (ni.hasInternetAccess()) {
-                internetInterface = ni;
-                return ni;
-            }
-        }
-        return null;
-    }
-
-    private static boolean hasAddress(java.net.NetworkInterface ni, InetAddress address) {
-        for (InterfaceAddress interfaceAddress : ni.getInterfaceAddresses()) {
-            if (interfaceAddress.getAddress().equals(address)) {
-                return true;
-            }
-        }
-        return false;
+        return NetworkInventory.get().getInternetInterface();
     }
 
     public static boolean isFromNetworkWithInternetAccess(Inet4Address address) {
-        Inet4Address internetAddress = getLocalInternet4Address();
-        if (internetAddress == null) {
-            return false;
-        }
-        if (address.equals(internetAddress)) {
-            return true;
-        }
-
-        try {
-            Enumeration<java.net.NetworkInterface> enumeration = java.net.NetworkInterface.getNetworkInterfaces();
-            while (enumeration.hasMoreElements()) {
-                java.net.NetworkInterface ni = enumeration.nextElement();
-                if (!ni.isUp()) {
-                    continue;
-                }
-                for (InterfaceAddress interfaceAddress : ni.getInterfaceAddresses()) {
-                    if (interfaceAddress.getAddress().equals(internetAddress)) {
-                        Inet4Address startAddress = getStart(internetAddress, interfaceAddress.getNetworkPrefixLength());
-                        Inet4Address endAddress = getEnd(internetAddress, interfaceAddress.getNetworkPrefixLength());
-                        int start = getIntAddress(startAddress);
-                        int end = getIntAddress(endAddress);
-                        int intAddress = getIntAddress(address);
-                        if (intAddress >= start && intAddress <= end) {
-                            return true;
-                        }
-                    }
-                }
-            }
-            return false;
-        } catch (Exception e) {
-            ExceptionUtil.throwException(e);
-            return false;
-        }
+        LocalSubnets.Subnet subnet = LocalSubnets.lookup(address);
+        return subnet != null && subnet.isInternet();
     }
 
     public static java.net.NetworkInterface getJavaInternetInterface() {
-        InetAddress internetAddress = getLocalInternetAddress();
-        try {
-            Enumeration<java.net.NetworkInterface> enumeration = java.net.NetworkInterface.getNetworkInterfaces();
-            while (enumeration.hasMoreElements()) {
-                java.net.NetworkInterface ni = enumeration.nextElement();
-                if (ni.isUp() && hasAddress(ni, internetAddress)) {
-                    return ni;
-                }
-            }
-            return null;
-        } catch (Exception e) {
-            ExceptionUtil.throwException(e);
+        NetworkInventory.Snapshot snapshot = NetworkInventory.get();
+        if (snapshot.getInternetAddress() == null) {
             return null;
         }
+        return snapshot.getInterfaceByAddress(snapshot.getInternetAddress());
     }
 
     public static Inet4Address getLocalAddressInSameNetworkFor(Inet4Address address) {
-        try {
-            Enumeration<java.net.NetworkInterface> enumeration = java.net.NetworkInterface.getNetworkInterfaces();
-            while (enumeration.hasMoreElements()) {
-                java.net.NetworkInterface i = enumeration.nextElement();
-                if (!i.isUp()) {
-                    continue;
-                }
-                for (InterfaceAddress ia : i.getInterfaceAddresses()) {
-                    if (ia.getAddress() instanceof Inet4Address ipv4) {
-                        Inet4Address startAddress = getStart(ipv4, ia.getNetworkPrefixLength());
-                        Inet4Address endAddress = getEnd(ipv4, ia.getNetworkPrefixLength());
-                        int a = getIntAddress(address);
-                        int start = getIntAddress(startAddress);
-                        int end = getIntAddress(endAddress);
-                        if (a >= start && a <= end) {
-                            return ipv4;
-                        }
-                    }
-                }
-            }
-            return null;
-        } catch (Exception e) {
-            ExceptionUtil.throwException(e);
-            return null;
-        }
+        LocalSubnets.Subnet subnet = LocalSubnets.lookup(address);
+        return subnet == null ? null : subnet.getLocalAddress();
     }
 
     public static java.net.NetworkInterface getInterfaceByIp(String ip) {
         try {
-            Enumeration<java.net.NetworkInterface> enumeration = java.net.NetworkInterface.getNetworkInterfaces();
-            while (enumeration.hasMoreElements()) {
-                java.net.NetworkInterface i = enumeration.nextElement();
-                if (!i.isUp()) {
-                    continue;
-                }
-                for (InterfaceAddress ia : i.getInterfaceAddresses()) {
-                    if (ia.getAddress() instanceof Inet4Address ipv4) {
-                        if (ipv4.getHostAddress().equals(ip)) {
-                            return i;
-                        }
-                    }
-                }
+            InetAddress address = InetAddress.getByName(ip);
+            if (address instanceof Inet4Address) {
+                return NetworkInventory.get().getInterfaceByAddress(address);
             }
             return null;
         } catch (Exception e) {
@@ -557,32 +453,8 @@ public class NetworkUtil {
     }
 
     public static java.net.NetworkInterface getJavaNetworkInterfaceFor(Inet4Address address) {
-        try {
-            Enumeration<java.net.NetworkInterface> enumeration = java.net.NetworkInterface.getNetworkInterfaces();
-            while (enumeration.hasMoreElements()) {
-                java.net.NetworkInterface i = enumeration.nextElement();
-                if (!i.isUp()) {
-                    continue;
-                }
-                for (InterfaceAddress ia : i.getInterfaceAddresses()) {
-                    if (ia.getAddress() instanceof Inet4Address ipv4) {
-                        Inet4Address startAddress = getStart(ipv4, ia.getNetworkPrefixLength());
-                        Inet4Address endAddress = getEnd(ipv4, ia.getNetworkPrefixLength());
-                        int a = getIntAddress(address);
-                        int start = getIntAddress(startAddress);
-                        int end = getIntAddress(endAddress);
-                        if (a >= start && a <= end) {
-                            return i;
-                        }
-                    }
-                }
-            }
-            return null;
-        } catch (Exception e) {
-            ExceptionUtil.throwException(e);
-            return null;
-        }
-
+        LocalSubnets.Subnet subnet = LocalSubnets.lookup(address);
+        return subnet == null ? null : subnet.getNetworkInterface();
     }
 
     private static List<String> createNetsh(String mode, NetworkInterface networkInterface, String address, String mask, String gateway) {
@@ -662,6 +534,7 @@ public class NetworkUtil {
 
             mode = "add";
         }
+        NetworkInventory.refreshAsync();
     }
 
 
@@ -700,6 +573,7 @@ public class NetworkUtil {
             }
             throw new RuntimeException("Failed to set ip");
         }
+        NetworkInventory.refreshAsync();
     }
 
     private static long lastInternetCheck;
@@ -713,6 +587,8 @@ public class NetworkUtil {
         return null;
     }
 
+    //source address the routing table picks for a public destination. Connecting a UDP socket only asks the kernel
+    //for a route, nothing is sent, so this never dials out and never waits on the network
     public static InetAddress getLocalInternetAddress() {
         if (System.currentTimeMillis() - lastInternetCheck > 10000) {
             lastInternetCheck = System.currentTimeMillis();
@@ -720,20 +596,18 @@ public class NetworkUtil {
             return localAddressInternet;
         }
 
-
-        final String[] addresses = {"github.com", "www.baidu.com", "google.com", "x.com", "yandex.ru"};
-        for (String address : addresses) {
-            try {
-                Socket s = new Socket(address, 443);
-                InetAddress local = s.getLocalAddress();
-                s.close();
-                localAddressInternet = local;
-                return local;
-            } catch (Throwable ignored) {
-
+        InetAddress local = null;
+        try (DatagramSocket socket = new DatagramSocket()) {
+            socket.connect(InetAddress.getByAddress(new byte[]{8, 8, 8, 8}), 53);
+            InetAddress address = socket.getLocalAddress();
+            if (address != null && !address.isAnyLocalAddress()) {
+                local = address;
             }
+        } catch (Throwable ignored) {
+            //no default route
         }
-        return null;
+        localAddressInternet = local;
+        return local;
     }
 
     public static NetworkInterface findPotentialWifiHotspotInterface(List<NetworkInterface> interfaces) {
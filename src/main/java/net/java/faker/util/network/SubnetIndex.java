@@ -0,0 +1,73 @@
+/*
+ * This file is part of faker - https://github.com/o1seth/faker
+ * Copyright (C) 2024 o1seth
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package net.java.faker.util.network;
+
+import java.util.Arrays;
+
+//binary prefix trie over ipv4 addresses, lookup is the longest prefix match.
+//filled once by add(...) and only read after it was published
+public class SubnetIndex<T> {
+    private int[] children = new int[64];//node * 2 + bit -> child node, 0 = no child
+    private Object[] values = new Object[32];
+    private int nodes = 1;//node 0 is the root
+
+    //the first value added for the same network and prefix wins
+    public void add(int network, int prefix, T value) {
+        int node = 0;
+        for (int i = 0; i < prefix; i++) {
+            int slot = node * 2 + ((network >>> (31 - i)) & 1);
+            if (this.children[slot] == 0) {
+                this.children[slot] = this.newNode();
+            }
+            node = this.children[slot];
+        }
+        if (this.values[node] == null) {
+            this.values[node] = value;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public T lookup(int address) {
+        int node = 0;
+        Object found = this.values[0];
+        for (int i = 0; i < 32; i++) {
+            node = this.children[node * 2 + ((address >>> (31 - i)) & 1)];
+            if (node == 0) {
+                break;
+            }
+            if (this.values[node] != null) {
+                found = this.values[node];
+            }
+        }
+        return (T) found;
+    }
+
+    public static int getNetwork(int address, int prefix) {
+        return prefix == 0 ? 0 : address & (0xffffffff << (32 - prefix));
+    }
+
+    private int newNode() {
+        if (this.nodes == this.values.length) {
+            this.values = Arrays.copyOf(this.values, this.nodes * 2);
+            this.children = Arrays.copyOf(this.children, this.nodes * 4);
+        }
+        return this.nodes++;
+    }
+}